@@ -0,0 +1,32 @@
+package com.kitchencloud.backend.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+// Copies coupon usage from the old users.usedCoupons element collection into coupon_redemptions.
+// The old user_used_coupons table is left in place; INSERT IGNORE makes reruns harmless.
+@Component
+public class CouponRedemptionMigration implements CommandLineRunner {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(String... args) throws Exception {
+        Integer legacyTables = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.tables WHERE table_schema = DATABASE() AND table_name = 'user_used_coupons'",
+                Integer.class);
+        if (legacyTables == null || legacyTables == 0) {
+            return;
+        }
+        int copied = jdbcTemplate.update(
+                "INSERT IGNORE INTO coupon_redemptions (user_id, code, redeemed_at) "
+                        + "SELECT user_id, UPPER(TRIM(used_coupons)), NOW() FROM user_used_coupons "
+                        + "WHERE used_coupons IS NOT NULL AND TRIM(used_coupons) <> ''");
+        if (copied > 0) {
+            System.out.println("Migrated " + copied + " coupon redemptions from user_used_coupons");
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.kitchencloud.backend.config;
+
+import com.kitchencloud.backend.service.Geocoder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+// Geocodes restaurants and orders saved before they carried coordinates. Orders are grouped by
+// address so each distinct address is looked up once. Only rows still without coordinates are
+// touched, and addresses the gazetteer does not know stay null, so reruns are harmless.
+@Component
+public class GeoBackfillMigration implements CommandLineRunner {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private Geocoder geocoder;
+
+    @Override
+    public void run(String... args) throws Exception {
+        int restaurants = 0;
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT id, address FROM restaurants WHERE latitude IS NULL AND address IS NOT NULL");
+        for (Map<String, Object> row : rows) {
+            double[] location = geocoder.geocode((String) row.get("address"));
+            if (location != null) {
+                restaurants += jdbcTemplate.update("UPDATE restaurants SET latitude = ?, longitude = ?, updated_at = NOW(6) WHERE id = ?",
+                        location[0], location[1], row.get("id"));
+            }
+        }
+
+        int orders = 0;
+        List<String> addresses = jdbcTemplate.queryForList("SELECT DISTINCT delivery_address FROM orders "
+                + "WHERE delivery_latitude IS NULL AND delivery_address IS NOT NULL", String.class);
+        for (String address : addresses) {
+            double[] location = geocoder.geocode(address);
+            if (location != null) {
+                orders += jdbcTemplate.update("UPDATE orders SET delivery_latitude = ?, delivery_longitude = ? "
+                        + "WHERE delivery_address = ? AND delivery_latitude IS NULL", location[0], location[1], address);
+            }
+        }
+
+        if (restaurants > 0 || orders > 0) {
+            System.out.println("Geocoded " + restaurants + " restaurants and " + orders + " orders");
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.kitchencloud.backend.config;
+
+import com.kitchencloud.backend.service.ImageService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+
+// Moves base64 data: URIs stored in restaurants.image_url / ngos.image_url into the uploads folder
+// and replaces them with the same short URL ImageService.saveImage returns. Rows are read one at a
+// time so only a single image is in memory; rows that fail to decode or are not raster images (svg
+// can carry script) stay inline and are still served by the /{id}/image endpoints. Only data: rows are touched, so reruns are harmless.
+@Component
+public class InlineImageMigration implements CommandLineRunner {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ImageService imageService;
+
+    @Override
+    public void run(String... args) throws Exception {
+        migrate("restaurants");
+        migrate("ngos");
+    }
+
+    private void migrate(String table) {
+        List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM " + table + " WHERE image_url LIKE 'data:%'", Long.class);
+        int migrated = 0;
+        for (Long id : ids) {
+            try {
+                String value = jdbcTemplate.queryForObject("SELECT image_url FROM " + table + " WHERE id = ?", String.class, id);
+                byte[] data = ImageService.decodeDataUri(value);
+                if (data == null) {
+                    System.err.println("Skipping undecodable inline image on " + table + " " + id);
+                    continue;
+                }
+                String mediaType = ImageService.dataUriMediaType(value);
+                if (!ImageService.isRasterImage(mediaType)) {
+                    // /uploads serves files inline by extension, so only raster images go there
+                    System.err.println("Keeping inline " + mediaType + " image on " + table + " " + id);
+                    continue;
+                }
+                String url = imageService.saveBytes(data, mediaType);
+                // updated_at moves so ETags built from it change with the new imageUrl
+                int updated = jdbcTemplate.update("UPDATE " + table + " SET image_url = ?, updated_at = NOW(6) "
+                        + "WHERE id = ? AND image_url LIKE 'data:%'", url, id);
+                if (updated == 0) {
+                    Files.deleteIfExists(Paths.get("uploads", url.substring(url.lastIndexOf('/') + 1)));
+                } else {
+                    migrated++;
+                }
+            } catch (Exception e) {
+                System.err.println("Failed to move inline image on " + table + " " + id + ": " + e.getMessage());
+            }
+        }
+        if (migrated > 0) {
+            System.out.println("Moved " + migrated + " inline images out of " + table + ".image_url");
+        }
+    }
+}
@@ -33,6 +33,10 @@ public class JwtFilter extends OncePerRequestFilter {
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             token = authHeader.substring(7);
             username = jwtUtil.extractUsername(token);
+        } else if (request.getRequestURI().startsWith("/api/orders/stream/") && request.getParameter("token") != null) {
+            // Browser EventSource cannot send headers, so order streams take the JWT as a query parameter
+            token = request.getParameter("token");
+            username = jwtUtil.extractUsername(token);
         }
 
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
@@ -29,6 +29,11 @@ public class JwtUtil {
         return extractClaim(token, claims -> claims.get("role", String.class));
     }
 
+    public Long extractId(String token) {
+        Number id = extractClaim(token, claims -> claims.get("id", Number.class));
+        return id != null ? id.longValue() : null;
+    }
+
     public Date extractExpiration(String token) {
         return extractClaim(token, Claims::getExpiration);
     }
@@ -0,0 +1,27 @@
+package com.kitchencloud.backend.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+// Gives every user with points but no ledger history an OPENING_BALANCE row, so the ledger
+// sum matches the balances accumulated before loyalty_transactions existed.
+@Component
+public class LoyaltyLedgerMigration implements CommandLineRunner {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(String... args) throws Exception {
+        int seeded = jdbcTemplate.update(
+                "INSERT INTO loyalty_transactions (user_id, order_id, points, type, created_at) "
+                        + "SELECT u.id, NULL, u.loyalty_points, 'OPENING_BALANCE', NOW() FROM users u "
+                        + "WHERE u.loyalty_points <> 0 "
+                        + "AND NOT EXISTS (SELECT 1 FROM loyalty_transactions t WHERE t.user_id = u.id)");
+        if (seeded > 0) {
+            System.out.println("Seeded opening loyalty balances for " + seeded + " users");
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.kitchencloud.backend.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+// Gives menu items created before menu_items.updated_at existed a timestamp, so menu ETags and
+// Last-Modified cover them. Only rows without one are touched, so reruns are harmless.
+@Component
+public class MenuItemUpdatedAtMigration implements CommandLineRunner {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(String... args) throws Exception {
+        int migrated = jdbcTemplate.update("UPDATE menu_items SET updated_at = NOW(6) WHERE updated_at IS NULL");
+        if (migrated > 0) {
+            System.out.println("Stamped updated_at on " + migrated + " menu items");
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.kitchencloud.backend.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+// Snapshots the menu item name onto order items placed before order_items.item_name existed.
+// Only rows without a name are touched, so reruns are harmless.
+@Component
+public class OrderItemNameMigration implements CommandLineRunner {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(String... args) throws Exception {
+        int migrated = jdbcTemplate.update(
+                "UPDATE order_items oi JOIN menu_items m ON m.id = oi.menu_item_id "
+                        + "SET oi.item_name = m.name WHERE oi.item_name IS NULL");
+        if (migrated > 0) {
+            System.out.println("Snapshotted item names onto " + migrated + " order items");
+        }
+    }
+}
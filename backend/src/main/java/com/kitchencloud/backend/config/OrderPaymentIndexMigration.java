@@ -0,0 +1,45 @@
+package com.kitchencloud.backend.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+// Order idempotency relies on the unique (payment_id, restaurant_id) index. ddl-auto cannot create it
+// while legacy rows repeat a payment id, so this clears blank ids, renames later duplicates (the
+// oldest order keeps the id) and creates the index. Startup fails if the index is still missing.
+@Component
+public class OrderPaymentIndexMigration implements CommandLineRunner {
+
+    private static final String INDEX = "uk_orders_payment_restaurant";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(String... args) throws Exception {
+        if (indexExists()) {
+            return;
+        }
+        int blanks = jdbcTemplate.update("UPDATE orders SET payment_id = NULL WHERE TRIM(payment_id) = ''");
+        int renamed = jdbcTemplate.update("UPDATE orders o JOIN (SELECT payment_id, restaurant_id, MIN(id) AS keep_id "
+                + "FROM orders WHERE payment_id IS NOT NULL AND restaurant_id IS NOT NULL "
+                + "GROUP BY payment_id, restaurant_id HAVING COUNT(*) > 1) d "
+                + "ON o.payment_id = d.payment_id AND o.restaurant_id = d.restaurant_id AND o.id <> d.keep_id "
+                + "SET o.payment_id = CONCAT(LEFT(o.payment_id, 200), '#dup-', o.id)");
+        if (blanks > 0 || renamed > 0) {
+            System.out.println("Cleared " + blanks + " blank payment ids and renamed " + renamed + " duplicate payment ids on orders");
+        }
+        jdbcTemplate.execute("CREATE UNIQUE INDEX " + INDEX + " ON orders (payment_id, restaurant_id)");
+        if (!indexExists()) {
+            throw new IllegalStateException("Unique index " + INDEX + " is missing; order placement would not be idempotent");
+        }
+        System.out.println("Created unique index " + INDEX);
+    }
+
+    private boolean indexExists() {
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM information_schema.statistics "
+                + "WHERE table_schema = DATABASE() AND table_name = 'orders' AND index_name = ?", Integer.class, INDEX);
+        return count != null && count > 0;
+    }
+}
@@ -0,0 +1,46 @@
+package com.kitchencloud.backend.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+// Fills orders.status_code from the old free-form orders.status column.
+// The old column is left in place; only rows without a code are touched, so reruns are harmless.
+// Unrecognised legacy values are left without a code and logged rather than guessed, so a finished
+// order can never drop back into the workflow as pending.
+@Component
+public class OrderStatusMigration implements CommandLineRunner {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(String... args) throws Exception {
+        Integer legacyColumns = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.columns WHERE table_schema = DATABASE() "
+                        + "AND table_name = 'orders' AND column_name = 'status'",
+                Integer.class);
+        if (legacyColumns == null || legacyColumns == 0) {
+            return;
+        }
+        int migrated = jdbcTemplate.update(
+                "UPDATE orders SET status_code = CASE LOWER(TRIM(status)) "
+                        + "WHEN 'pending' THEN 0 WHEN 'accepted' THEN 1 WHEN 'preparing' THEN 2 WHEN 'ready' THEN 3 "
+                        + "WHEN 'out-for-delivery' THEN 4 WHEN 'delivered' THEN 5 WHEN 'cancelled' THEN 6 END "
+                        + "WHERE status_code IS NULL AND LOWER(TRIM(status)) IN "
+                        + "('pending', 'accepted', 'preparing', 'ready', 'out-for-delivery', 'delivered', 'cancelled')");
+        if (migrated > 0) {
+            System.out.println("Migrated " + migrated + " order statuses to status_code");
+        }
+        List<Map<String, Object>> unknown = jdbcTemplate.queryForList(
+                "SELECT status, COUNT(*) AS orders FROM orders WHERE status_code IS NULL AND status IS NOT NULL GROUP BY status");
+        for (Map<String, Object> row : unknown) {
+            System.err.println("Skipped " + row.get("orders") + " orders with unknown legacy status '" + row.get("status")
+                    + "'; set status_code by hand");
+        }
+    }
+}
@@ -18,6 +18,24 @@ public class AdminController {
     @Autowired
     private AdminService adminService;
 
+    @Autowired
+    private com.kitchencloud.backend.service.LoyaltyService loyaltyService;
+
+    @Autowired
+    private com.kitchencloud.backend.service.AdminStatsService adminStatsService;
+
+    @Autowired
+    private com.kitchencloud.backend.service.OrderRollupService orderRollupService;
+
+    @Autowired
+    private com.kitchencloud.backend.service.OrderExportService orderExportService;
+
+    @Autowired
+    private com.kitchencloud.backend.service.GeoIndexService geoIndexService;
+
+    @Autowired
+    private com.kitchencloud.backend.service.DispatchService dispatchService;
+
     @GetMapping("/restaurants")
     public ResponseEntity<?> getAllRestaurants() {
         return ResponseEntity.ok(adminService.getAllRestaurants());
@@ -103,6 +121,34 @@ public class AdminController {
         return ResponseEntity.ok(Map.of("success", true, "message", "Restaurant approved successfully"));
     }
 
+    // Pins a restaurant the gazetteer could not place (or placed only at city level)
+    @PutMapping("/restaurants/{id}/location")
+    public ResponseEntity<?> updateRestaurantLocation(@PathVariable Long id, @RequestParam double lat,
+            @RequestParam double lng) {
+        if (lat < -90 || lat > 90 || lng < -180 || lng > 180) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "message", "Invalid coordinates"));
+        }
+        adminService.updateRestaurantLocation(id, lat, lng);
+        return ResponseEntity.ok(Map.of("success", true, "message", "Restaurant location updated"));
+    }
+
+    @GetMapping("/geo/stats")
+    public ResponseEntity<?> getGeoStats() {
+        return ResponseEntity.ok(geoIndexService.getStats());
+    }
+
+    @GetMapping("/dispatch/stats")
+    public ResponseEntity<?> getDispatchStats() {
+        return ResponseEntity.ok(dispatchService.getStats());
+    }
+
+    // Clears counters and latency samples, e.g. before a load test
+    @PostMapping("/dispatch/stats/reset")
+    public ResponseEntity<?> resetDispatchStats() {
+        dispatchService.resetStats();
+        return ResponseEntity.ok(dispatchService.getStats());
+    }
+
     @PutMapping("/reject/restaurant/{id}")
     public ResponseEntity<?> rejectRestaurant(@PathVariable Long id) {
         adminService.rejectRestaurant(id);
@@ -133,9 +179,24 @@ public class AdminController {
         return ResponseEntity.ok(Map.of("success", true, "message", "NGO rejected successfully"));
     }
 
+    // Body stays a plain array; the total lives in X-Total-Count
     @GetMapping("/customers")
-    public ResponseEntity<?> getAllCustomers() {
-        return ResponseEntity.ok(adminService.getAllCustomers());
+    public ResponseEntity<?> getAllCustomers(@RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "100") int size,
+            @RequestParam(defaultValue = "recent") String sort,
+            @RequestParam(defaultValue = "desc") String direction) {
+        org.springframework.data.domain.Page<com.kitchencloud.backend.dto.CustomerDTO> customers =
+                adminService.getAllCustomers(page, size, sort, direction);
+        return ResponseEntity.ok()
+                .header("X-Total-Count", String.valueOf(customers.getTotalElements()))
+                .body(customers.getContent());
+    }
+
+    @GetMapping(value = "/customers/export", produces = "text/csv")
+    public ResponseEntity<org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody> exportCustomers() {
+        return ResponseEntity.ok()
+                .header("Content-Disposition", "attachment; filename=customers.csv")
+                .body(adminService::exportCustomersCsv);
     }
 
     @GetMapping("/stats")
@@ -143,14 +204,88 @@ public class AdminController {
         return ResponseEntity.ok(adminService.getDashboardStats());
     }
 
+    @GetMapping("/stats/health")
+    public ResponseEntity<?> getStatsHealth() {
+        return ResponseEntity.ok(adminStatsService.getHealth());
+    }
+
+    // Time series from the order rollups; from/to accept yyyy-MM-dd or yyyy-MM-ddTHH:mm
+    @GetMapping("/analytics/orders")
+    public ResponseEntity<?> getOrderSeries(@RequestParam(defaultValue = "day") String granularity,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false) Long restaurantId,
+            @RequestParam(required = false) String groupBy) {
+        boolean hourly = "hour".equalsIgnoreCase(granularity);
+        java.time.LocalDateTime end = to != null ? parseBound(to)
+                : (hourly ? java.time.LocalDateTime.now().plusHours(1).truncatedTo(java.time.temporal.ChronoUnit.HOURS)
+                        : java.time.LocalDate.now().plusDays(1).atStartOfDay());
+        java.time.LocalDateTime start = from != null ? parseBound(from) : (hourly ? end.minusHours(48) : end.minusDays(30));
+        try {
+            return ResponseEntity.ok(orderRollupService.getSeries(granularity, start, end, restaurantId, groupBy));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "message", e.getMessage()));
+        }
+    }
+
+    @PostMapping("/analytics/rollups/backfill")
+    public ResponseEntity<?> backfillRollups(@RequestParam(required = false) String from,
+            @RequestParam(required = false) String to) {
+        java.time.LocalDate start;
+        java.time.LocalDate end;
+        try {
+            start = from != null ? java.time.LocalDate.parse(from) : null;
+            end = to != null ? java.time.LocalDate.parse(to) : null;
+        } catch (java.time.format.DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "message", "Dates must be yyyy-MM-dd"));
+        }
+        try {
+            int days = orderRollupService.backfill(start, end);
+            return ResponseEntity.ok(Map.of("success", true, "daysRebuilt", days));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "message", e.getMessage()));
+        }
+    }
+
+    private static java.time.LocalDateTime parseBound(String value) {
+        return value.length() == 10 ? java.time.LocalDate.parse(value).atStartOfDay() : java.time.LocalDateTime.parse(value);
+    }
+
+    @PostMapping("/stats/reconcile")
+    public ResponseEntity<?> reconcileStats() {
+        adminStatsService.reconcile();
+        return ResponseEntity.ok(adminStatsService.getHealth());
+    }
+
     @GetMapping("/orders/recent")
     public ResponseEntity<?> getRecentOrders() {
         return ResponseEntity.ok(adminService.getRecentOrders());
     }
 
     @GetMapping("/orders")
-    public ResponseEntity<?> getAllOrders() {
-        return ResponseEntity.ok(adminService.getAllOrders());
+    public ResponseEntity<?> getAllOrders(@RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            return com.kitchencloud.backend.service.OrderListingService.toResponse(adminService.getAllOrders(cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // Streams every matching order; format is csv (default) or ndjson, from/to bound createdAt
+    @GetMapping("/orders/export")
+    public ResponseEntity<org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody> exportOrders(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false) Long restaurantId) {
+        boolean ndjson = com.kitchencloud.backend.service.OrderExportService.NDJSON.equalsIgnoreCase(format);
+        java.time.LocalDateTime start = from != null ? parseBound(from) : null;
+        java.time.LocalDateTime end = to != null ? parseBound(to) : null;
+        return ResponseEntity.ok()
+                .contentType(org.springframework.http.MediaType.parseMediaType(ndjson ? "application/x-ndjson" : "text/csv"))
+                .header("Content-Disposition", "attachment; filename=orders." + (ndjson ? "ndjson" : "csv"))
+                .body(out -> orderExportService.export(format, start, end, restaurantId, out));
     }
 
     @PutMapping("/orders/assign/{orderId}")
@@ -158,4 +293,9 @@ public class AdminController {
         adminService.assignDeliveryBoyToOrder(orderId, deliveryBoyId);
         return ResponseEntity.ok(Map.of("success", true, "message", "Delivery Boy assigned successfully"));
     }
+
+    @PostMapping("/loyalty/reconcile")
+    public ResponseEntity<?> reconcileLoyalty() {
+        return ResponseEntity.ok(loyaltyService.reconcile());
+    }
 }
@@ -1,17 +1,23 @@
 package com.kitchencloud.backend.controller;
 
 import com.kitchencloud.backend.dto.MenuItemDTO;
+import com.kitchencloud.backend.dto.ResourceVersion;
 import com.kitchencloud.backend.model.MenuItem;
 import com.kitchencloud.backend.model.Restaurant;
 import com.kitchencloud.backend.repository.MenuItemRepository;
 import com.kitchencloud.backend.repository.RestaurantRepository;
+import com.kitchencloud.backend.event.MenuItemChangedEvent;
+import com.kitchencloud.backend.service.MenuCache;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -27,29 +33,47 @@ public class MenuController {
     @Autowired
     private com.kitchencloud.backend.service.FileStorageService fileStorageService;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private MenuCache menuCache;
+
+    // Served from the pre-serialized snapshot; the cache is dropped on every menu write
     @GetMapping("/restaurant/{restaurantId}")
-    public List<MenuItem> getMenuByRestaurant(@PathVariable Long restaurantId) {
-        return menuItemRepository.findByRestaurantIdAndDeletedFalse(restaurantId);
+    public ResponseEntity<byte[]> getMenuByRestaurant(@PathVariable Long restaurantId, WebRequest request) {
+        return menuResponse(restaurantId, request);
     }
 
     @GetMapping("/featured")
-    public List<MenuItem> getFeaturedItems() {
-        System.out.println("DEBUG: /featured endpoint called");
-        // Fetch dishes from "My Kitchen"
-        List<Restaurant> restaurants = restaurantRepository.findByRestaurantName("My Kitchen");
-        System.out.println("DEBUG: Found " + restaurants.size() + " restaurants with name 'My Kitchen'");
-
-        Restaurant myKitchen = restaurants.stream().findFirst().orElse(null);
-
-        if (myKitchen != null) {
-            System.out.println("DEBUG: Using Restaurant ID: " + myKitchen.getId());
-            List<MenuItem> items = menuItemRepository.findByRestaurantIdAndDeletedFalse(myKitchen.getId());
-            System.out.println("DEBUG: Found " + items.size() + " menu items for restaurant " + myKitchen.getId());
-            return items;
-        } else {
-            System.out.println("DEBUG: 'My Kitchen' restaurant not found!");
+    public ResponseEntity<byte[]> getFeaturedItems(WebRequest request) {
+        // Dishes from "My Kitchen"
+        Long restaurantId = menuCache.getFeaturedRestaurantId();
+        if (restaurantId == null) {
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(menuCache.getFeatured().getJson());
         }
-        return List.of();
+        return menuResponse(restaurantId, request);
+    }
+
+    // If-None-Match / If-Modified-Since are answered from the cached snapshot's version, or from one
+    // aggregate query when the menu is not cached, so a 304 never loads menu items
+    private ResponseEntity<byte[]> menuResponse(Long restaurantId, WebRequest request) {
+        MenuCache.Snapshot snapshot = menuCache.peek(restaurantId);
+        ResourceVersion version = snapshot != null ? snapshot.getVersion() : menuCache.currentVersion(restaurantId);
+        if (request.checkNotModified(version.getEtag(), version.getLastModified())) {
+            return null;
+        }
+        if (snapshot == null) {
+            snapshot = menuCache.getMenu(restaurantId);
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).contentType(MediaType.APPLICATION_JSON)
+                .body(snapshot.getJson());
+    }
+
+    @GetMapping("/cache/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getCacheStats() {
+        return ResponseEntity.ok(menuCache.getStats());
     }
 
     @PostMapping(value = "/add", consumes = "multipart/form-data")
@@ -83,6 +107,7 @@ public class MenuController {
             item.setRestaurant(restaurant);
 
             menuItemRepository.save(item);
+            eventPublisher.publishEvent(new MenuItemChangedEvent(item.getId(), restaurant.getId()));
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -115,6 +140,8 @@ public class MenuController {
         }
 
         menuItemRepository.save(item);
+        eventPublisher.publishEvent(new MenuItemChangedEvent(item.getId(),
+                item.getRestaurant() != null ? item.getRestaurant().getId() : null));
 
         Map<String, Object> response = new HashMap<>();
         response.put("success", true);
@@ -125,7 +152,13 @@ public class MenuController {
     @DeleteMapping("/delete/{id}")
     @PreAuthorize("hasRole('RESTAURANT')")
     public ResponseEntity<?> deleteMenuItem(@PathVariable Long id) {
-        menuItemRepository.deleteById(id);
+        // Soft delete, like the admin dish delete: keeps order history intact and moves the menu's Last-Modified
+        MenuItem item = menuItemRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Menu item not found"));
+        item.setDeleted(true);
+        menuItemRepository.save(item);
+        eventPublisher.publishEvent(new MenuItemChangedEvent(id,
+                item.getRestaurant() != null ? item.getRestaurant().getId() : null));
         Map<String, Object> response = new HashMap<>();
         response.put("success", true);
         response.put("message", "Menu item deleted successfully");
@@ -1,12 +1,15 @@
 package com.kitchencloud.backend.controller;
 
-import com.kitchencloud.backend.model.NGO;
+import com.kitchencloud.backend.dto.NGOSummaryDTO;
 import com.kitchencloud.backend.repository.NGORepository;
+import com.kitchencloud.backend.service.ImageService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.util.List;
 
@@ -17,8 +20,23 @@ public class NGOController {
     @Autowired
     private NGORepository ngoRepository;
 
+    // Images are fetched one at a time from /{id}/image, so the listing never reads them
     @GetMapping
-    public ResponseEntity<List<NGO>> getApprovedNGOs() {
-        return ResponseEntity.ok(ngoRepository.findByApproved(true));
+    public ResponseEntity<List<NGOSummaryDTO>> getApprovedNGOs() {
+        List<NGOSummaryDTO> ngos = ngoRepository.findApprovedSummaries();
+        String base = ServletUriComponentsBuilder.fromCurrentContextPath().path("/api/ngos/").toUriString();
+        for (NGOSummaryDTO ngo : ngos) {
+            if (ngo.isHasImage()) {
+                ngo.setImageUrl(base + ngo.getId() + "/image");
+            }
+        }
+        return ResponseEntity.ok(ngos);
+    }
+
+    // Reads only the image column; serves inline images that have not been moved to uploads yet
+    @GetMapping("/{id}/image")
+    public ResponseEntity<byte[]> getNGOImage(@PathVariable Long id) {
+        List<String> images = ngoRepository.findImageUrlById(id);
+        return ImageService.toResponse(images.isEmpty() ? null : images.get(0));
     }
 }
@@ -1,16 +1,26 @@
 package com.kitchencloud.backend.controller;
 
 import com.kitchencloud.backend.dto.OrderRequestDTO;
+import com.kitchencloud.backend.dto.OrderSummaryDTO;
 import com.kitchencloud.backend.model.*;
 import com.kitchencloud.backend.repository.*;
 import com.kitchencloud.backend.config.JwtUtil;
+import com.kitchencloud.backend.service.OrderEventStreamService;
+import com.kitchencloud.backend.service.OrderIntakeService;
+import com.kitchencloud.backend.service.OrderListingService;
+import com.kitchencloud.backend.service.DeliveryAssignmentService;
+import com.kitchencloud.backend.service.OrderIdempotencyService;
+import com.kitchencloud.backend.service.OrderRejectedException;
+import com.kitchencloud.backend.service.OrderStatusService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import jakarta.servlet.http.HttpServletRequest;
-import java.util.ArrayList;
 import java.util.List;
 
 @RestController
@@ -27,13 +37,22 @@ public class OrderController {
     private OrderRepository orderRepository;
 
     @Autowired
-    private UserRepository userRepository;
+    private OrderIdempotencyService orderIdempotencyService;
 
     @Autowired
-    private RestaurantRepository restaurantRepository;
+    private OrderIntakeService orderIntakeService;
 
     @Autowired
-    private MenuItemRepository menuItemRepository;
+    private DeliveryAssignmentService deliveryAssignmentService;
+
+    @Autowired
+    private OrderStatusService orderStatusService;
+
+    @Autowired
+    private OrderListingService orderListingService;
+
+    @Autowired
+    private OrderEventStreamService orderEventStreamService;
 
     @Autowired
     private DeliveryBoyRepository deliveryBoyRepository;
@@ -44,144 +63,207 @@ public class OrderController {
     @PostMapping("/place")
     public ResponseEntity<?> placeOrder(@RequestBody OrderRequestDTO request) {
         try {
-            User user = userRepository.findById(request.getUserId())
-                    .orElseThrow(() -> new RuntimeException("User not found"));
-            Restaurant restaurant = restaurantRepository.findById(request.getRestaurantId())
-                    .orElseThrow(() -> new RuntimeException("Restaurant not found"));
-
-            // 0. Handle Coupon Reuse
-            System.out.println("DEBUG: Coupon Code Received: " + request.getCouponCode());
-            if (request.getCouponCode() != null && !request.getCouponCode().trim().isEmpty()) {
-                String code = request.getCouponCode().trim().toUpperCase();
-                System.out.println("DEBUG: User Used Coupons: " + user.getUsedCoupons());
-                
-                if (user.getUsedCoupons().contains(code)) {
-                    System.out.println("DEBUG: Coupon REJECTED (Already Used)");
-                    return ResponseEntity.badRequest().body("Coupon '" + code + "' has already been used!");
-                }
-                user.getUsedCoupons().add(code);
-                user = userRepository.save(user); // Persist coupon usage immediately
-                System.out.println("DEBUG: Coupon ACCEPTED and Saved. List: " + user.getUsedCoupons());
-            } else {
-                 System.out.println("DEBUG: No Coupon Code in Request");
+            Order placed = orderIdempotencyService.getPlaced(request);
+            if (placed != null) {
+                return ResponseEntity.ok(placed);
             }
-
-            // 1. Handle Point Redemption
-            if (request.getRedeemedPoints() != null && request.getRedeemedPoints() > 0) {
-                if (user.getLoyaltyPoints() < request.getRedeemedPoints()) {
-                    return ResponseEntity.badRequest().body("Insufficient loyalty points");
+            if (orderIntakeService.isAsyncEnabled()) {
+                OrderIntakeService.IntakeResult result = orderIntakeService.submit(request);
+                if (result == null) {
+                    return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                            .header("Retry-After", "1")
+                            .body("Order queue is full, please retry shortly");
                 }
-                user.setLoyaltyPoints(user.getLoyaltyPoints() - request.getRedeemedPoints());
-                user = userRepository.save(user); // Capture saved entity
+                return ResponseEntity.accepted().body(result);
             }
-
-            Order order = new Order();
-            order.setUser(user);
-            order.setRestaurant(restaurant);
-            order.setDeliveryAddress(request.getUserAddress());
-            order.setDeliveryPhone(request.getUserPhone());
-            order.setTotalAmount(request.getTotal());
-            order.setStatus("pending");
-            order.setDonationAmount(request.getDonationAmount());
-            order.setNgoId(request.getNgoId());
-            order.setPaymentId(request.getPaymentId());
-
-            List<OrderItem> orderItems = new ArrayList<>();
-            for (OrderRequestDTO.OrderItemRequest itemRequest : request.getItems()) {
-                MenuItem menuItem = menuItemRepository.findById(itemRequest.getMenuItemId())
-                        .orElseThrow(() -> new RuntimeException("Menu Item not found"));
-                OrderItem orderItem = new OrderItem();
-                orderItem.setOrder(order);
-                orderItem.setMenuItem(menuItem);
-                orderItem.setQuantity(itemRequest.getQuantity());
-                orderItem.setPrice(menuItem.getPrice());
-                orderItems.add(orderItem);
-            }
-            order.setItems(orderItems);
-
-            orderRepository.save(order);
-
-            // Loyalty Program: Award points if ordering from 'My Kitchen' using updated user object
-            if ("My Kitchen".equalsIgnoreCase(restaurant.getRestaurantName())) {
-                int pointsEarned = (int) (order.getTotalAmount() / 10); // 10% of order value
-                if (pointsEarned > 0) {
-                    user.setLoyaltyPoints(user.getLoyaltyPoints() + pointsEarned);
-                    user = userRepository.save(user); // Capture saved entity again
-                }
-            }
-
+            Order order = orderIdempotencyService.placeOrder(request);
             return ResponseEntity.ok(order);
+        } catch (OrderRejectedException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.badRequest().body("Failed to place order: " + e.getMessage());
         }
     }
 
+    @GetMapping("/intake/{token}")
+    public ResponseEntity<?> getIntakeResult(@PathVariable String token) {
+        OrderIntakeService.IntakeResult result = orderIntakeService.getResult(token);
+        if (result == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(result);
+    }
+
+    @GetMapping("/intake/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getIntakeStats() {
+        return ResponseEntity.ok(orderIntakeService.getStats());
+    }
+
+    // Lists are keyset-paginated: pass the X-Next-Cursor header of one page as ?cursor= for the next
     @GetMapping("/user/{userId}")
     @PreAuthorize("hasAnyRole('CUSTOMER', 'ADMIN')")
-    public List<Order> getUserOrders(@PathVariable Long userId) {
-        return orderRepository.findByUserId(userId);
+    public ResponseEntity<?> getUserOrders(@PathVariable Long userId,
+            @RequestParam(required = false) String cursor, @RequestParam(required = false) Integer limit) {
+        try {
+            return OrderListingService.toResponse(orderListingService.forUser(userId, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     @GetMapping("/restaurant/{restaurantId}")
     @PreAuthorize("hasAnyRole('RESTAURANT', 'ADMIN')")
-    public List<Order> getRestaurantOrders(@PathVariable Long restaurantId) {
-        return orderRepository.findByRestaurantId(restaurantId);
+    public ResponseEntity<?> getRestaurantOrders(@PathVariable Long restaurantId,
+            @RequestParam(required = false) String cursor, @RequestParam(required = false) Integer limit) {
+        try {
+            return OrderListingService.toResponse(orderListingService.forRestaurant(restaurantId, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public List<Order> getAllOrders() {
-        return orderRepository.findAll();
+    public ResponseEntity<?> getAllOrders(@RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            return OrderListingService.toResponse(orderListingService.all(cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     @GetMapping("/available")
     @PreAuthorize("hasRole('DELIVERY')")
-    public List<Order> getAvailableOrders() {
-        return orderRepository.findByStatusAndDeliveryBoyIsNull("ready");
+    public List<OrderSummaryDTO> getAvailableOrders() {
+        return orderListingService.unassigned(OrderStatus.READY);
     }
 
     @GetMapping("/delivery")
     @PreAuthorize("hasRole('DELIVERY')")
-    public List<Order> getMyDeliveries(HttpServletRequest request) {
+    public ResponseEntity<?> getMyDeliveries(HttpServletRequest request,
+            @RequestParam(required = false) String cursor, @RequestParam(required = false) Integer limit) {
         String token = request.getHeader("Authorization").substring(7);
         String email = jwtUtil.extractUsername(token);
         DeliveryBoy deliveryBoy = deliveryBoyRepository.findByEmail(email)
                 .orElseThrow(() -> new RuntimeException("Delivery Boy not found"));
-        return orderRepository.findByDeliveryBoyId(deliveryBoy.getId());
+        try {
+            return OrderListingService.toResponse(orderListingService.forDeliveryBoy(deliveryBoy.getId(), cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // Riders go on and off shift; the dispatcher only hands orders to available riders
+    @PutMapping("/delivery/availability")
+    @PreAuthorize("hasRole('DELIVERY')")
+    public ResponseEntity<?> updateAvailability(@RequestParam boolean available, HttpServletRequest request) {
+        Long deliveryBoyId = jwtUtil.extractId(request.getHeader("Authorization").substring(7));
+        DeliveryBoy deliveryBoy = deliveryBoyRepository.findById(deliveryBoyId)
+                .orElseThrow(() -> new RuntimeException("Delivery Boy not found"));
+        deliveryBoy.setAvailable(available);
+        deliveryBoyRepository.save(deliveryBoy);
+        return ResponseEntity.ok(available ? "You are now available for orders" : "You are now off duty");
+    }
+
+    // Position reported by the rider app, so the dispatcher can prefer riders close to the restaurant
+    @PutMapping("/delivery/location")
+    @PreAuthorize("hasRole('DELIVERY')")
+    public ResponseEntity<?> updateLocation(@RequestParam double lat, @RequestParam double lng,
+            HttpServletRequest request) {
+        if (lat < -90 || lat > 90 || lng < -180 || lng > 180) {
+            return ResponseEntity.badRequest().body("Invalid coordinates");
+        }
+        Long deliveryBoyId = jwtUtil.extractId(request.getHeader("Authorization").substring(7));
+        DeliveryBoy deliveryBoy = deliveryBoyRepository.findById(deliveryBoyId)
+                .orElseThrow(() -> new RuntimeException("Delivery Boy not found"));
+        deliveryBoy.setLatitude(lat);
+        deliveryBoy.setLongitude(lng);
+        deliveryBoyRepository.save(deliveryBoy);
+        return ResponseEntity.ok("Location updated");
     }
 
     @PutMapping("/assign/{orderId}")
     @PreAuthorize("hasRole('DELIVERY')")
     public ResponseEntity<?> assignOrder(@PathVariable Long orderId, HttpServletRequest request) {
+        // The rider id comes straight from the token, so a claim is a single UPDATE
         String token = request.getHeader("Authorization").substring(7);
-        String email = jwtUtil.extractUsername(token);
-        DeliveryBoy deliveryBoy = deliveryBoyRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("Delivery Boy not found"));
+        Long deliveryBoyId = jwtUtil.extractId(token);
 
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new RuntimeException("Order not found"));
-
-        if (order.getDeliveryBoy() != null) {
-            return ResponseEntity.badRequest().body("Order already assigned");
+        try {
+            deliveryAssignmentService.claim(orderId, deliveryBoyId);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         }
 
-        order.setDeliveryBoy(deliveryBoy);
-        order.setStatus("out-for-delivery");
-        orderRepository.save(order);
-
         return ResponseEntity.ok("Order assigned successfully");
     }
 
     @PutMapping("/status/{orderId}")
     @PreAuthorize("hasAnyRole('RESTAURANT', 'DELIVERY', 'ADMIN')")
     public ResponseEntity<?> updateOrderStatus(@PathVariable Long orderId, @RequestParam String status) {
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new RuntimeException("Order not found"));
-
-        order.setStatus(status);
-        orderRepository.save(order);
+        try {
+            orderStatusService.updateStatus(orderId, OrderStatus.fromValue(status));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
 
         return ResponseEntity.ok("Order status updated");
     }
+
+    // Server-sent event streams; EventSource cannot set headers, so these also accept ?token=
+    @GetMapping(value = "/stream/restaurant/{restaurantId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyRole('RESTAURANT', 'ADMIN')")
+    public SseEmitter streamRestaurantOrders(@PathVariable Long restaurantId, HttpServletRequest request) {
+        requireOwnerOrAdmin(request, restaurantId);
+        return orderEventStreamService.subscribe(OrderEventStreamService.restaurantTopic(restaurantId));
+    }
+
+    @GetMapping(value = "/stream/user/{userId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyRole('USER', 'CUSTOMER', 'ADMIN')")
+    public SseEmitter streamUserOrders(@PathVariable Long userId, HttpServletRequest request) {
+        requireOwnerOrAdmin(request, userId);
+        return orderEventStreamService.subscribe(OrderEventStreamService.userTopic(userId));
+    }
+
+    @GetMapping(value = "/stream/delivery", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('DELIVERY')")
+    public SseEmitter streamDeliveryOrders(HttpServletRequest request) {
+        Long deliveryBoyId = jwtUtil.extractId(resolveToken(request));
+        return orderEventStreamService.subscribe(OrderEventStreamService.DELIVERY_POOL,
+                OrderEventStreamService.deliveryTopic(deliveryBoyId));
+    }
+
+    @GetMapping(value = "/stream/admin", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public SseEmitter streamAllOrders() {
+        return orderEventStreamService.subscribe(OrderEventStreamService.ADMIN);
+    }
+
+    @GetMapping("/stream/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getStreamStats() {
+        return ResponseEntity.ok(orderEventStreamService.getStats());
+    }
+
+    // Restaurants and customers may only follow their own stream; the id in the token is theirs
+    private void requireOwnerOrAdmin(HttpServletRequest request, Long id) {
+        String token = resolveToken(request);
+        if ("ADMIN".equalsIgnoreCase(jwtUtil.extractRole(token))) {
+            return;
+        }
+        if (!id.equals(jwtUtil.extractId(token))) {
+            throw new org.springframework.security.access.AccessDeniedException("Not your order stream");
+        }
+    }
+
+    private String resolveToken(HttpServletRequest request) {
+        String header = request.getHeader("Authorization");
+        if (header != null && header.startsWith("Bearer ")) {
+            return header.substring(7);
+        }
+        return request.getParameter("token");
+    }
 }
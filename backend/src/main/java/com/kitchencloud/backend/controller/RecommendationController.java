@@ -1,12 +1,15 @@
 package com.kitchencloud.backend.controller;
 
 import com.kitchencloud.backend.model.MenuItem;
+import com.kitchencloud.backend.service.RecommendationPrecomputeService;
 import com.kitchencloud.backend.service.RecommendationService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/recommendations")
@@ -16,9 +19,37 @@ public class RecommendationController {
     @Autowired
     private RecommendationService recommendationService;
 
+    @Autowired
+    private RecommendationPrecomputeService recommendationPrecomputeService;
+
+    @GetMapping("/complements")
+    public ResponseEntity<List<MenuItem>> getComplements(@RequestParam List<Long> itemIds,
+            @RequestParam(defaultValue = "5") int limit) {
+        return ResponseEntity.ok(recommendationService.getComplements(itemIds, limit));
+    }
+
+    @GetMapping("/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getStats() {
+        Map<String, Object> stats = recommendationService.getStats();
+        stats.put("precompute", recommendationPrecomputeService.getStats());
+        return ResponseEntity.ok(stats);
+    }
+
+    @PostMapping("/precompute")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> precompute() {
+        recommendationPrecomputeService.run();
+        return ResponseEntity.ok(recommendationPrecomputeService.getStats());
+    }
+
     @GetMapping("/{userId}")
     public ResponseEntity<List<MenuItem>> getRecommendations(@PathVariable Long userId) {
-        List<MenuItem> recommendations = recommendationService.getRecommendations(userId);
+        // Users the last batch run did not cover (new, or ordered since) are computed live
+        long[] precomputed = recommendationPrecomputeService.get(userId);
+        List<MenuItem> recommendations = precomputed != null
+                ? recommendationService.getRecommendations(precomputed)
+                : recommendationService.getRecommendations(userId);
         return ResponseEntity.ok(recommendations);
     }
 }
@@ -1,13 +1,20 @@
 package com.kitchencloud.backend.controller;
 
+import com.kitchencloud.backend.dto.ResourceVersion;
+import com.kitchencloud.backend.dto.RestaurantSummaryDTO;
 import com.kitchencloud.backend.model.Restaurant;
 import com.kitchencloud.backend.repository.RestaurantRepository;
+import com.kitchencloud.backend.service.ImageService;
+import com.kitchencloud.backend.service.RestaurantListingService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api")
@@ -16,17 +23,67 @@ public class RestaurantController {
     @Autowired
     private RestaurantRepository restaurantRepository;
 
+    @Autowired
+    private RestaurantListingService restaurantListingService;
+
+    // Approved restaurants, filtered and paged in the database; the total is in X-Total-Count
     @GetMapping("/restaurants")
-    public List<Restaurant> getAllRestaurants() {
-        return restaurantRepository.findAll().stream()
-                .filter(Restaurant::isApproved)
-                .collect(Collectors.toList());
+    public ResponseEntity<List<RestaurantSummaryDTO>> getAllRestaurants(@RequestParam(required = false) String cuisine,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "id") String sort,
+            @RequestParam(defaultValue = "asc") String direction,
+            WebRequest request) {
+        Object[] row = restaurantRepository.findApprovedListVersion().get(0);
+        ResourceVersion version = ResourceVersion.of("restaurants", null,
+                row[0] != null ? ((Number) row[0]).longValue() : 0, (LocalDateTime) row[1]);
+        // ETag only: deleting a restaurant changes the list without moving any updatedAt
+        if (request.checkNotModified(version.getEtag())) {
+            return null;
+        }
+        Page<RestaurantSummaryDTO> restaurants = restaurantListingService.approved(cuisine, page, size, sort, direction);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache())
+                .header("X-Total-Count", String.valueOf(restaurants.getTotalElements()))
+                .body(restaurants.getContent());
+    }
+
+    // Nearest approved restaurants to a point, closest first, each with distanceKm
+    @GetMapping("/restaurants/nearby")
+    public ResponseEntity<?> getNearbyRestaurants(@RequestParam double lat, @RequestParam double lng,
+            @RequestParam(defaultValue = "10") double radiusKm,
+            @RequestParam(defaultValue = "20") int limit) {
+        try {
+            return ResponseEntity.ok(restaurantListingService.nearby(lat, lng, radiusKm, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // The "My Kitchen" row that the UI pins above the paged listing
+    @GetMapping("/restaurants/featured")
+    public ResponseEntity<RestaurantSummaryDTO> getFeaturedRestaurant() {
+        RestaurantSummaryDTO featured = restaurantListingService.featured();
+        return featured != null ? ResponseEntity.ok(featured) : ResponseEntity.notFound().build();
+    }
+
+    // Image for list cards, fetched separately so the listing never reads the LOB
+    @GetMapping("/restaurants/{id}/image")
+    public ResponseEntity<byte[]> getRestaurantImage(@PathVariable Long id) {
+        return ImageService.toResponse(restaurantListingService.imageOf(id));
     }
 
     @GetMapping("/restaurants/{id}")
-    public ResponseEntity<Restaurant> getRestaurantById(@PathVariable Long id) {
+    public ResponseEntity<Restaurant> getRestaurantById(@PathVariable Long id, WebRequest request) {
+        List<Object[]> rows = restaurantRepository.findVersionById(id);
+        if (rows.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        ResourceVersion version = ResourceVersion.of("restaurant", id, 1, (LocalDateTime) rows.get(0)[1]);
+        if (request.checkNotModified(version.getEtag(), version.getLastModified())) {
+            return null;
+        }
         return restaurantRepository.findById(id)
-                .map(ResponseEntity::ok)
+                .map(restaurant -> ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(restaurant))
                 .orElse(ResponseEntity.notFound().build());
     }
 }
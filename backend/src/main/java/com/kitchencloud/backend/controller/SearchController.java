@@ -0,0 +1,47 @@
+package com.kitchencloud.backend.controller;
+
+import com.kitchencloud.backend.dto.SearchHitDTO;
+import com.kitchencloud.backend.service.SearchIndexService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/search")
+public class SearchController {
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    // type: dish, restaurant, or omitted for both
+    @GetMapping
+    public ResponseEntity<List<SearchHitDTO>> search(@RequestParam String q,
+            @RequestParam(required = false) String type,
+            @RequestParam(defaultValue = "20") int limit) {
+        if (q.length() > SearchIndexService.MAX_QUERY_LENGTH) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (type != null && !SearchIndexService.DISH.equals(type) && !SearchIndexService.RESTAURANT.equals(type)) {
+            return ResponseEntity.badRequest().build();
+        }
+        String imageBase = ServletUriComponentsBuilder.fromCurrentContextPath().path("/api/restaurants/").toUriString();
+        return ResponseEntity.ok(searchIndexService.search(q, type, Math.min(Math.max(limit, 1), 100), imageBase));
+    }
+
+    @GetMapping("/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getStats() {
+        return ResponseEntity.ok(searchIndexService.getStats());
+    }
+
+    @PostMapping("/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> rebuild() {
+        searchIndexService.rebuild();
+        return ResponseEntity.ok(searchIndexService.getStats());
+    }
+}
@@ -1,8 +1,11 @@
 package com.kitchencloud.backend.controller;
 
+import com.kitchencloud.backend.config.JwtUtil;
 import com.kitchencloud.backend.model.User;
 import com.kitchencloud.backend.repository.UserRepository;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -16,6 +19,12 @@ public class UserController {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private com.kitchencloud.backend.service.LoyaltyService loyaltyService;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
     @GetMapping("/{userId}")
     public ResponseEntity<?> getUserProfile(@PathVariable Long userId) {
         User user = userRepository.findById(userId)
@@ -31,4 +40,32 @@ public class UserController {
 
         return ResponseEntity.ok(response);
     }
+
+    // Only the customer the ledger belongs to, or an admin
+    @GetMapping("/{userId}/loyalty")
+    public ResponseEntity<?> getLoyaltyHistory(@PathVariable Long userId, HttpServletRequest request) {
+        if (!isOwnerOrAdmin(request, userId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Not your loyalty history");
+        }
+        return ResponseEntity.ok(loyaltyService.getHistory(userId));
+    }
+
+    private boolean isOwnerOrAdmin(HttpServletRequest request, Long userId) {
+        String header = request.getHeader("Authorization");
+        if (header == null || !header.startsWith("Bearer ")) {
+            return false;
+        }
+        try {
+            String token = header.substring(7);
+            String role = jwtUtil.extractRole(token);
+            if ("ADMIN".equalsIgnoreCase(role)) {
+                return true;
+            }
+            // Ids are per table, so a restaurant or rider with the same id is not the owner
+            return ("USER".equalsIgnoreCase(role) || "CUSTOMER".equalsIgnoreCase(role))
+                    && userId.equals(jwtUtil.extractId(token));
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
 }
@@ -0,0 +1,43 @@
+package com.kitchencloud.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// NGO list row without the image column (or the password); imageUrl points at /api/ngos/{id}/image.
+@Data
+@NoArgsConstructor
+public class NGOSummaryDTO {
+    private Long id;
+    private String organizationName;
+    private String type;
+    private String city;
+    private String email;
+    private String contactNumber;
+    private String description;
+    private boolean approved;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private String imageUrl;
+
+    @JsonIgnore
+    private boolean hasImage;
+
+    public NGOSummaryDTO(Long id, String organizationName, String type, String city, String email,
+            String contactNumber, String description, boolean approved, LocalDateTime createdAt,
+            LocalDateTime updatedAt, boolean hasImage) {
+        this.id = id;
+        this.organizationName = organizationName;
+        this.type = type;
+        this.city = city;
+        this.email = email;
+        this.contactNumber = contactNumber;
+        this.description = description;
+        this.approved = approved;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.hasImage = hasImage;
+    }
+}
@@ -0,0 +1,15 @@
+package com.kitchencloud.backend.dto;
+
+public interface OrderItemView {
+    Long getOrderId();
+
+    Long getId();
+
+    Long getMenuItemId();
+
+    String getName();
+
+    Integer getQuantity();
+
+    Double getPrice();
+}
@@ -0,0 +1,40 @@
+package com.kitchencloud.backend.dto;
+
+import com.kitchencloud.backend.model.OrderStatus;
+
+import java.time.LocalDateTime;
+
+// Scalar columns of an order and the few party fields list views show; never touches LOB columns.
+public interface OrderListView {
+    Long getId();
+
+    OrderStatus getStatus();
+
+    Double getTotalAmount();
+
+    Double getDonationAmount();
+
+    String getNgoId();
+
+    String getDeliveryAddress();
+
+    String getDeliveryPhone();
+
+    LocalDateTime getCreatedAt();
+
+    Long getUserId();
+
+    String getUserFullName();
+
+    String getUserPhone();
+
+    Long getRestaurantId();
+
+    String getRestaurantName();
+
+    Long getDeliveryBoyId();
+
+    String getDeliveryBoyFullName();
+
+    String getDeliveryBoyPhone();
+}
@@ -9,6 +9,8 @@ public class OrderRequestDTO {
     private String userName; // Optional, can use from token
     private String userPhone;
     private String userAddress;
+    private Double deliveryLatitude; // Optional, e.g. from browser geolocation; geocoded from userAddress otherwise
+    private Double deliveryLongitude;
 
     private Long restaurantId;
 
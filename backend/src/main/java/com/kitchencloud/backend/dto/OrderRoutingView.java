@@ -0,0 +1,24 @@
+package com.kitchencloud.backend.dto;
+
+import com.kitchencloud.backend.model.OrderStatus;
+
+import java.time.LocalDateTime;
+
+// Column projection with just enough of an order to route its events; loads no associations.
+public interface OrderRoutingView {
+    Long getId();
+
+    Long getUserId();
+
+    Long getRestaurantId();
+
+    Long getDeliveryBoyId();
+
+    OrderStatus getStatus();
+
+    Double getTotalAmount();
+
+    Double getDonationAmount();
+
+    LocalDateTime getCreatedAt();
+}
@@ -0,0 +1,98 @@
+package com.kitchencloud.backend.dto;
+
+import com.kitchencloud.backend.model.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// List-view shape of an order. Nested objects keep the paths the dashboards already read
+// (order.user.fullName, order.restaurant.restaurantName, items[].menuItem.name).
+@Data
+@NoArgsConstructor
+public class OrderSummaryDTO {
+    private Long id;
+    private OrderStatus status;
+    private Double totalAmount;
+    private Double donationAmount;
+    private String ngoId;
+    private String deliveryAddress;
+    private String deliveryPhone;
+    private LocalDateTime createdAt;
+    private Party user;
+    private RestaurantRef restaurant;
+    private Party deliveryBoy;
+    private List<Item> items = new ArrayList<>();
+
+    public static OrderSummaryDTO from(OrderListView view) {
+        OrderSummaryDTO dto = new OrderSummaryDTO();
+        dto.setId(view.getId());
+        dto.setStatus(view.getStatus());
+        dto.setTotalAmount(view.getTotalAmount());
+        dto.setDonationAmount(view.getDonationAmount());
+        dto.setNgoId(view.getNgoId());
+        dto.setDeliveryAddress(view.getDeliveryAddress());
+        dto.setDeliveryPhone(view.getDeliveryPhone());
+        dto.setCreatedAt(view.getCreatedAt());
+        if (view.getUserId() != null) {
+            dto.setUser(new Party(view.getUserId(), view.getUserFullName(), view.getUserPhone()));
+        }
+        if (view.getRestaurantId() != null) {
+            dto.setRestaurant(new RestaurantRef(view.getRestaurantId(), view.getRestaurantName()));
+        }
+        if (view.getDeliveryBoyId() != null) {
+            dto.setDeliveryBoy(new Party(view.getDeliveryBoyId(), view.getDeliveryBoyFullName(), view.getDeliveryBoyPhone()));
+        }
+        return dto;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Party {
+        private Long id;
+        private String fullName;
+        private String phone;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RestaurantRef {
+        private Long id;
+        private String restaurantName;
+    }
+
+    @Data
+    @NoArgsConstructor
+    public static class Item {
+        private Long id;
+        private String name;
+        private Integer quantity;
+        private Double price;
+        private MenuItemRef menuItem;
+
+        public static Item from(OrderItemView view) {
+            Item item = new Item();
+            item.setId(view.getId());
+            item.setName(view.getName());
+            item.setQuantity(view.getQuantity());
+            item.setPrice(view.getPrice());
+            item.setMenuItem(new MenuItemRef(view.getMenuItemId(), view.getName(), view.getPrice()));
+            return item;
+        }
+    }
+
+    // Price here is the price paid, not the current menu price
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class MenuItemRef {
+        private Long id;
+        private String name;
+        private Double price;
+    }
+}
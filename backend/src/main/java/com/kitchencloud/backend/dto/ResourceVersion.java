@@ -0,0 +1,25 @@
+package com.kitchencloud.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+
+// Strong ETag plus Last-Modified (epoch millis, -1 when unknown) for conditional GETs.
+@Data
+@AllArgsConstructor
+public class ResourceVersion {
+
+    private String etag;
+    private long lastModified;
+
+    // count distinguishes removals, updatedAt (microsecond precision) every other write
+    public static ResourceVersion of(String kind, Long id, long count, LocalDateTime updatedAt) {
+        long micros = updatedAt != null ? ChronoUnit.MICROS.between(LocalDateTime.of(1970, 1, 1, 0, 0), updatedAt) : 0;
+        long lastModified = updatedAt != null ? updatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : -1;
+        String etag = "\"" + kind + (id != null ? "-" + id : "") + "-" + count + "-" + Long.toString(micros, 36) + "\"";
+        return new ResourceVersion(etag, lastModified);
+    }
+}
@@ -18,4 +18,6 @@ public class RestaurantRegisterDTO {
     private String description;
     private String licenseNumber;
     private String imageUrl;
+    private Double latitude; // Optional; geocoded from the address when missing
+    private Double longitude;
 }
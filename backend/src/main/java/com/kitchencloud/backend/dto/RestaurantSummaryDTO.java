@@ -0,0 +1,46 @@
+package com.kitchencloud.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Restaurant list row without the image LOB (or the password); imageUrl points at /api/restaurants/{id}/image.
+@Data
+@NoArgsConstructor
+public class RestaurantSummaryDTO {
+    private Long id;
+    private String restaurantName;
+    private String ownerName;
+    private String email;
+    private String phone;
+    private String cuisineType;
+    private String address;
+    private String description;
+    private boolean approved;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private String imageUrl;
+    private Double distanceKm; // Only set by /api/restaurants/nearby
+
+    @JsonIgnore
+    private boolean hasImage;
+
+    public RestaurantSummaryDTO(Long id, String restaurantName, String ownerName, String email, String phone,
+            String cuisineType, String address, String description, boolean approved, LocalDateTime createdAt,
+            LocalDateTime updatedAt, boolean hasImage) {
+        this.id = id;
+        this.restaurantName = restaurantName;
+        this.ownerName = ownerName;
+        this.email = email;
+        this.phone = phone;
+        this.cuisineType = cuisineType;
+        this.address = address;
+        this.description = description;
+        this.approved = approved;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.hasImage = hasImage;
+    }
+}
@@ -0,0 +1,18 @@
+package com.kitchencloud.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RollupPointDTO {
+    private LocalDateTime bucketStart;
+    private String key; // Status or cuisine when grouped, otherwise null
+    private long orders;
+    private double revenue;
+    private double donationAmount;
+}
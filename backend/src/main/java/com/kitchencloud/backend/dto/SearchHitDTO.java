@@ -0,0 +1,22 @@
+package com.kitchencloud.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One /api/search result; detail is the dish category or the restaurant cuisine.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchHitDTO {
+    private String type;
+    private Long id;
+    private String name;
+    private String detail;
+    private String description;
+    private Long restaurantId;
+    private Double price; // Dishes only
+    private Boolean veg; // Dishes only
+    private String imageUrl;
+    private double score;
+}
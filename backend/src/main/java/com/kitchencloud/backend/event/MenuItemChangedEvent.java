@@ -0,0 +1,12 @@
+package com.kitchencloud.backend.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// Published after a menu item is added, edited or deleted, so in-memory menu views can refresh it.
+@Data
+@AllArgsConstructor
+public class MenuItemChangedEvent {
+    private Long menuItemId;
+    private Long restaurantId;
+}
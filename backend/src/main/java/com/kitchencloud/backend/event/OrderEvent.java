@@ -0,0 +1,90 @@
+package com.kitchencloud.backend.event;
+
+import com.kitchencloud.backend.dto.OrderRoutingView;
+import com.kitchencloud.backend.model.Order;
+import com.kitchencloud.backend.model.OrderItem;
+import com.kitchencloud.backend.model.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Published inside the writing transaction; listeners use @TransactionalEventListener so they only see committed changes.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderEvent {
+
+    public static final String CREATED = "order-created";
+    public static final String STATUS_CHANGED = "order-status-changed";
+    public static final String ASSIGNED = "order-assigned";
+
+    private String type;
+    private Long orderId;
+    private Long userId;
+    private Long restaurantId;
+    private Long deliveryBoyId;
+    private OrderStatus status;
+    private OrderStatus previousStatus;
+    private Double totalAmount;
+    private Double donationAmount;
+    private String restaurantName; // Set on CREATED only
+    private String cuisineType; // Set on CREATED only
+    private List<Item> items; // Set on CREATED only
+    private LocalDateTime createdAt;
+    private LocalDateTime occurredAt;
+
+    public static OrderEvent created(Order order) {
+        OrderEvent event = new OrderEvent();
+        event.setType(CREATED);
+        event.setOrderId(order.getId());
+        event.setUserId(order.getUser() != null ? order.getUser().getId() : null);
+        event.setRestaurantId(order.getRestaurant() != null ? order.getRestaurant().getId() : null);
+        event.setStatus(order.getStatus());
+        event.setTotalAmount(order.getTotalAmount());
+        event.setDonationAmount(order.getDonationAmount());
+        if (order.getRestaurant() != null) {
+            event.setRestaurantName(order.getRestaurant().getRestaurantName());
+            event.setCuisineType(order.getRestaurant().getCuisineType());
+        }
+        List<Item> items = new ArrayList<>();
+        if (order.getItems() != null) {
+            for (OrderItem orderItem : order.getItems()) {
+                items.add(new Item(orderItem.getMenuItem().getId(), orderItem.getQuantity(), orderItem.getPrice()));
+            }
+        }
+        event.setItems(items);
+        // createdAt is only filled by Hibernate at flush; the event time is close enough until then
+        event.setOccurredAt(LocalDateTime.now());
+        event.setCreatedAt(order.getCreatedAt() != null ? order.getCreatedAt() : event.getOccurredAt());
+        return event;
+    }
+
+    public static OrderEvent changed(String type, OrderRoutingView order, OrderStatus previousStatus) {
+        OrderEvent event = new OrderEvent();
+        event.setType(type);
+        event.setOrderId(order.getId());
+        event.setUserId(order.getUserId());
+        event.setRestaurantId(order.getRestaurantId());
+        event.setDeliveryBoyId(order.getDeliveryBoyId());
+        event.setStatus(order.getStatus());
+        event.setPreviousStatus(previousStatus);
+        event.setTotalAmount(order.getTotalAmount());
+        event.setDonationAmount(order.getDonationAmount());
+        event.setCreatedAt(order.getCreatedAt());
+        event.setOccurredAt(LocalDateTime.now());
+        return event;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+        private Long menuItemId;
+        private Integer quantity;
+        private Double price;
+    }
+}
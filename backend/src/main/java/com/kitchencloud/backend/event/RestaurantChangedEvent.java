@@ -0,0 +1,11 @@
+package com.kitchencloud.backend.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// Published after a restaurant is created, approved, rejected or deleted.
+@Data
+@AllArgsConstructor
+public class RestaurantChangedEvent {
+    private Long restaurantId;
+}
@@ -0,0 +1,31 @@
+package com.kitchencloud.backend.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "coupon_redemptions", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_coupon_redemptions_user_code", columnNames = { "user_id", "code" })
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CouponRedemption {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false, length = 64)
+    private String code; // Stored trimmed and upper-cased
+
+    @CreationTimestamp
+    private LocalDateTime redeemedAt;
+}
@@ -33,6 +33,10 @@ public class DeliveryBoy {
     private boolean approved;
     private boolean available;
 
+    // Last position reported by the rider app; used by the dispatcher to pick the closest rider
+    private Double latitude;
+    private Double longitude;
+
     @CreationTimestamp
     @Column(updatable = false)
     private LocalDateTime createdAt;
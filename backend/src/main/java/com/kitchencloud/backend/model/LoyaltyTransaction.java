@@ -0,0 +1,35 @@
+package com.kitchencloud.backend.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+// Append-only loyalty ledger; User.loyaltyPoints is a cached sum of these rows.
+@Entity
+@Table(name = "loyalty_transactions", indexes = {
+        @Index(name = "idx_loyalty_transactions_user", columnList = "user_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoyaltyTransaction {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    private Long orderId;
+
+    private int points; // Signed: negative for redemptions
+    private String type; // EARN, REDEEM, OPENING_BALANCE
+
+    @CreationTimestamp
+    @Column(updatable = false)
+    private LocalDateTime createdAt;
+}
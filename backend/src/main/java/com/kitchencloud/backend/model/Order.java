@@ -10,7 +10,14 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "uk_orders_payment_restaurant", columnList = "payment_id, restaurant_id", unique = true),
+        @Index(name = "idx_orders_status_delivery_boy", columnList = "status_code, delivery_boy_id"),
+        @Index(name = "idx_orders_user_created", columnList = "user_id, created_at, id"),
+        @Index(name = "idx_orders_restaurant_created", columnList = "restaurant_id, created_at, id"),
+        @Index(name = "idx_orders_delivery_boy_created", columnList = "delivery_boy_id, created_at, id"),
+        @Index(name = "idx_orders_created", columnList = "created_at, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -35,9 +42,12 @@ public class Order {
     private List<OrderItem> items;
 
     private Double totalAmount;
-    private String status; // pending, accepted, preparing, ready, out-for-delivery, delivered
+    @Column(name = "status_code", columnDefinition = "TINYINT")
+    private OrderStatus status;
     private String deliveryAddress;
     private String deliveryPhone;
+    private Double deliveryLatitude;
+    private Double deliveryLongitude;
 
     private Double donationAmount;
     private String ngoId;
@@ -45,4 +55,12 @@ public class Order {
 
     @CreationTimestamp
     private LocalDateTime createdAt;
+
+    // Set by the conditional status UPDATE when the order enters each state
+    private LocalDateTime acceptedAt;
+    private LocalDateTime preparingAt;
+    private LocalDateTime readyAt;
+    private LocalDateTime outForDeliveryAt;
+    private LocalDateTime deliveredAt;
+    private LocalDateTime cancelledAt;
 }
@@ -27,4 +27,5 @@ public class OrderItem {
 
     private Integer quantity;
     private Double price; // Price at time of order
+    private String itemName; // Name at time of order
 }
@@ -0,0 +1,35 @@
+package com.kitchencloud.backend.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Pre-aggregated order totals per (bucket, restaurant, status). Orders are bucketed by createdAt;
+// a status change moves the order's count and amounts from one status row to another.
+@MappedSuperclass
+@Data
+@NoArgsConstructor
+public abstract class OrderRollup {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(name = "restaurant_id", nullable = false)
+    private Long restaurantId;
+
+    @Column(name = "status_code", columnDefinition = "TINYINT", nullable = false)
+    private OrderStatus status;
+
+    private long orderCount;
+
+    @Column(columnDefinition = "DECIMAL(14,2)")
+    private Double revenue;
+
+    @Column(columnDefinition = "DECIMAL(14,2)")
+    private Double donationAmount;
+}
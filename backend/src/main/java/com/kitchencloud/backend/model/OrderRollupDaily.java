@@ -0,0 +1,15 @@
+package com.kitchencloud.backend.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(name = "order_rollup_daily", indexes = {
+        @Index(name = "uk_order_rollup_daily", columnList = "bucket_start, restaurant_id, status_code", unique = true),
+        @Index(name = "idx_order_rollup_daily_restaurant", columnList = "restaurant_id, bucket_start")
+})
+@NoArgsConstructor
+public class OrderRollupDaily extends OrderRollup {
+}
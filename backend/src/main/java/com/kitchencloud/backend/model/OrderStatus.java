@@ -0,0 +1,86 @@
+package com.kitchencloud.backend.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+// Order lifecycle. Stored as a small int (code) and serialized with the lowercase names the frontend uses.
+public enum OrderStatus {
+    PENDING(0, "pending"),
+    ACCEPTED(1, "accepted"),
+    PREPARING(2, "preparing"),
+    READY(3, "ready"),
+    OUT_FOR_DELIVERY(4, "out-for-delivery"),
+    DELIVERED(5, "delivered"),
+    CANCELLED(6, "cancelled");
+
+    private final int code;
+    private final String value;
+
+    OrderStatus(int code, String value) {
+        this.code = code;
+        this.value = value;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    @JsonValue
+    public String getValue() {
+        return value;
+    }
+
+    public boolean isFinal() {
+        return this == DELIVERED || this == CANCELLED;
+    }
+
+    // Orders an admin may still hand to a rider (which moves them straight to out-for-delivery)
+    public boolean isAssignable() {
+        return this == PENDING || this == ACCEPTED || this == PREPARING || this == READY;
+    }
+
+    public Set<OrderStatus> nextStatuses() {
+        switch (this) {
+            case PENDING:
+                return EnumSet.of(ACCEPTED, CANCELLED);
+            case ACCEPTED:
+                return EnumSet.of(PREPARING, CANCELLED);
+            case PREPARING:
+                return EnumSet.of(READY, CANCELLED);
+            case READY:
+                return EnumSet.of(OUT_FOR_DELIVERY, CANCELLED);
+            case OUT_FOR_DELIVERY:
+                return EnumSet.of(DELIVERED, CANCELLED);
+            default:
+                return EnumSet.noneOf(OrderStatus.class);
+        }
+    }
+
+    public boolean canTransitionTo(OrderStatus next) {
+        return nextStatuses().contains(next);
+    }
+
+    @JsonCreator
+    public static OrderStatus fromValue(String value) {
+        if (value != null) {
+            for (OrderStatus status : values()) {
+                if (status.value.equalsIgnoreCase(value.trim()) || status.name().equalsIgnoreCase(value.trim())) {
+                    return status;
+                }
+            }
+        }
+        throw new RuntimeException("Unknown order status: " + value);
+    }
+
+    public static OrderStatus fromCode(int code) {
+        for (OrderStatus status : values()) {
+            if (status.code == code) {
+                return status;
+            }
+        }
+        throw new IllegalArgumentException("Unknown order status code: " + code);
+    }
+}
@@ -10,7 +10,9 @@ import org.hibernate.annotations.UpdateTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "restaurants")
+@Table(name = "restaurants", indexes = {
+        @Index(name = "idx_restaurants_approved_cuisine", columnList = "approved, cuisine_type")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -39,6 +41,10 @@ public class Restaurant {
 
     private boolean approved;
 
+    // Set explicitly or geocoded from the address; null when the address could not be placed
+    private Double latitude;
+    private Double longitude;
+
     @CreationTimestamp
     @Column(updatable = false)
     private LocalDateTime createdAt;
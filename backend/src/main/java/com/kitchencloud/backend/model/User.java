@@ -37,9 +37,6 @@ public class User {
     @Column(updatable = false)
     private LocalDateTime createdAt;
 
-    @ElementCollection(fetch = FetchType.EAGER)
-    private java.util.List<String> usedCoupons = new java.util.ArrayList<>();
-
     @UpdateTimestamp
     private LocalDateTime updatedAt;
 }
@@ -0,0 +1,19 @@
+package com.kitchencloud.backend.repository;
+
+import com.kitchencloud.backend.model.CouponRedemption;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CouponRedemptionRepository extends JpaRepository<CouponRedemption, Long> {
+
+    boolean existsByUserIdAndCode(Long userId, String code);
+
+    // Atomic insert-or-fail: returns 0 when the (user, code) pair is already redeemed.
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO coupon_redemptions (user_id, code, redeemed_at) VALUES (:userId, :code, NOW())", nativeQuery = true)
+    int insertIfAbsent(@Param("userId") Long userId, @Param("code") String code);
+}
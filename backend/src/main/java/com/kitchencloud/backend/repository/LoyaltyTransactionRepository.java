@@ -0,0 +1,20 @@
+package com.kitchencloud.backend.repository;
+
+import com.kitchencloud.backend.model.LoyaltyTransaction;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface LoyaltyTransactionRepository extends JpaRepository<LoyaltyTransaction, Long> {
+
+    List<LoyaltyTransaction> findByUserIdOrderByCreatedAtDesc(Long userId);
+
+    // Users whose cached balance differs from their ledger: [userId, cachedBalance, ledgerBalance]
+    @Query(value = "SELECT u.id, u.loyalty_points, COALESCE(SUM(t.points), 0) FROM users u "
+            + "LEFT JOIN loyalty_transactions t ON t.user_id = u.id "
+            + "GROUP BY u.id, u.loyalty_points HAVING u.loyalty_points <> COALESCE(SUM(t.points), 0)", nativeQuery = true)
+    List<Object[]> findBalanceMismatches();
+}
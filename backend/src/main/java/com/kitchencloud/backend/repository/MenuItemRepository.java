@@ -2,6 +2,8 @@ package com.kitchencloud.backend.repository;
 
 import com.kitchencloud.backend.model.MenuItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -13,4 +15,9 @@ public interface MenuItemRepository extends JpaRepository<MenuItem, Long> {
     List<MenuItem> findByDeletedFalse();
 
     List<MenuItem> findByRestaurantIdAndDeletedFalse(Long restaurantId);
+
+    // One row: visible item count and newest updatedAt including deleted items; no entities are loaded
+    @Query("SELECT SUM(CASE WHEN m.deleted = false THEN 1 ELSE 0 END), MAX(m.updatedAt) FROM MenuItem m "
+            + "WHERE m.restaurant.id = :restaurantId")
+    List<Object[]> findMenuVersion(@Param("restaurantId") Long restaurantId);
 }
@@ -11,4 +11,13 @@ public interface NGORepository extends JpaRepository<NGO, Long> {
     Optional<NGO> findByEmail(String email);
 
     java.util.List<NGO> findByApproved(boolean approved);
+
+    // Public listing as a column projection, so the image column never leaves MySQL
+    @org.springframework.data.jpa.repository.Query("SELECT new com.kitchencloud.backend.dto.NGOSummaryDTO(n.id, "
+            + "n.organizationName, n.type, n.city, n.email, n.contactNumber, n.description, n.approved, n.createdAt, "
+            + "n.updatedAt, CASE WHEN n.imageUrl IS NULL THEN false ELSE true END) FROM NGO n WHERE n.approved = true")
+    java.util.List<com.kitchencloud.backend.dto.NGOSummaryDTO> findApprovedSummaries();
+
+    @org.springframework.data.jpa.repository.Query("SELECT n.imageUrl FROM NGO n WHERE n.id = :id")
+    java.util.List<String> findImageUrlById(@org.springframework.data.repository.query.Param("id") Long id);
 }
@@ -18,4 +18,17 @@ public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
 
     @Query("SELECT oi.menuItem.id FROM OrderItem oi WHERE oi.order.user.id = :userId GROUP BY oi.menuItem.id ORDER BY COUNT(oi) DESC")
     List<Long> findUserFavoriteItemIds(@Param("userId") Long userId, Pageable pageable);
+
+    // Every (order id, item id) line of the user's orders; loaded once per user by FavoritesCache
+    @Query("SELECT oi.order.id, oi.menuItem.id FROM OrderItem oi WHERE oi.order.user.id = :userId")
+    List<Object[]> findUserItemLines(@Param("userId") Long userId);
+
+    // Newest first; served by the (user_id, created_at, id) index on orders
+    @Query("SELECT oi.menuItem.id FROM OrderItem oi WHERE oi.order.user.id = :userId ORDER BY oi.order.createdAt DESC, oi.id DESC")
+    List<Long> findRecentItemIdsByUser(@Param("userId") Long userId, Pageable pageable);
+
+    // Items for a whole page of orders in one query, using the name snapshot instead of joining menu_items
+    @Query("SELECT oi.order.id AS orderId, oi.id AS id, oi.menuItem.id AS menuItemId, oi.itemName AS name, "
+            + "oi.quantity AS quantity, oi.price AS price FROM OrderItem oi WHERE oi.order.id IN :orderIds ORDER BY oi.id")
+    List<com.kitchencloud.backend.dto.OrderItemView> findViewsByOrderIds(@Param("orderIds") java.util.Collection<Long> orderIds);
 }
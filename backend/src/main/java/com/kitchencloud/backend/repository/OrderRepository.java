@@ -1,6 +1,7 @@
 package com.kitchencloud.backend.repository;
 
 import com.kitchencloud.backend.model.Order;
+import com.kitchencloud.backend.model.OrderStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -8,39 +9,96 @@ import java.util.List;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
-    List<Order> findByUserId(Long userId);
+    // Top 5 Restaurants by Revenue
+    @org.springframework.data.jpa.repository.Query("SELECT r.restaurantName, COUNT(o), SUM(o.totalAmount) FROM Order o JOIN o.restaurant r GROUP BY r.restaurantName ORDER BY SUM(o.totalAmount) DESC")
+    List<Object[]> findTopRestaurantsByRevenue(org.springframework.data.domain.Pageable pageable);
 
-    List<Order> findByRestaurantId(Long restaurantId);
+    // Orders by Cuisine
+    @org.springframework.data.jpa.repository.Query("SELECT r.cuisineType, COUNT(o) FROM Order o JOIN o.restaurant r GROUP BY r.cuisineType")
+    List<Object[]> countOrdersByCuisine();
 
-    List<Order> findByStatusAndDeliveryBoyIsNull(String status);
+    @org.springframework.data.jpa.repository.Query("SELECT o.id AS id, u.id AS userId, r.id AS restaurantId, d.id AS deliveryBoyId, "
+            + "o.status AS status, o.totalAmount AS totalAmount, o.donationAmount AS donationAmount, o.createdAt AS createdAt "
+            + "FROM Order o LEFT JOIN o.user u LEFT JOIN o.restaurant r LEFT JOIN o.deliveryBoy d WHERE o.id = :id")
+    java.util.Optional<com.kitchencloud.backend.dto.OrderRoutingView> findRoutingById(@org.springframework.data.repository.query.Param("id") Long id);
 
-    @org.springframework.data.jpa.repository.Query("SELECT SUM(o.totalAmount) FROM Order o")
-    Double calculateTotalRevenue();
+    java.util.Optional<Order> findByPaymentIdAndRestaurantId(String paymentId, Long restaurantId);
 
-    List<Order> findTop5ByOrderByCreatedAtDesc();
+    // Rider self-claim: only one concurrent claimer can match the delivery_boy_id IS NULL predicate.
+    // Status codes are OrderStatus codes: 3 = ready, 4 = out-for-delivery.
+    @org.springframework.data.jpa.repository.Modifying
+    @org.springframework.data.jpa.repository.Query(value = "UPDATE orders SET delivery_boy_id = :deliveryBoyId, status_code = 4, out_for_delivery_at = :now "
+            + "WHERE id = :orderId AND delivery_boy_id IS NULL AND status_code = 3", nativeQuery = true)
+    int claimReadyOrder(@org.springframework.data.repository.query.Param("orderId") Long orderId,
+            @org.springframework.data.repository.query.Param("deliveryBoyId") Long deliveryBoyId,
+            @org.springframework.data.repository.query.Param("now") java.time.LocalDateTime now);
 
-    @org.springframework.data.jpa.repository.Query("SELECT o.status, COUNT(o) FROM Order o GROUP BY o.status")
-    List<Object[]> countOrdersByStatus();
+    // Admin assignment may happen before the order is ready, but never twice and only to an approved rider.
+    // The caller passes the status code it last saw, so the statement doubles as a compare-and-set.
+    @org.springframework.data.jpa.repository.Modifying
+    @org.springframework.data.jpa.repository.Query(value = "UPDATE orders SET delivery_boy_id = :deliveryBoyId, status_code = 4, out_for_delivery_at = :now "
+            + "WHERE id = :orderId AND delivery_boy_id IS NULL AND status_code = :expectedCode "
+            + "AND EXISTS (SELECT 1 FROM delivery_boys d WHERE d.id = :deliveryBoyId AND d.approved = TRUE)", nativeQuery = true)
+    int assignOpenOrder(@org.springframework.data.repository.query.Param("orderId") Long orderId,
+            @org.springframework.data.repository.query.Param("deliveryBoyId") Long deliveryBoyId,
+            @org.springframework.data.repository.query.Param("expectedCode") int expectedCode,
+            @org.springframework.data.repository.query.Param("now") java.time.LocalDateTime now);
 
-    @org.springframework.data.jpa.repository.Query("SELECT SUM(o.totalAmount) FROM Order o WHERE o.createdAt >= :startDate")
-    Double calculateRevenueSince(@org.springframework.data.repository.query.Param("startDate") java.time.LocalDateTime startDate);
+    // Compare-and-set status transition that also stamps the column for the state being entered.
+    @org.springframework.data.jpa.repository.Modifying
+    @org.springframework.data.jpa.repository.Query(value = "UPDATE orders SET status_code = :toCode, "
+            + "accepted_at = CASE WHEN :toCode = 1 THEN :now ELSE accepted_at END, "
+            + "preparing_at = CASE WHEN :toCode = 2 THEN :now ELSE preparing_at END, "
+            + "ready_at = CASE WHEN :toCode = 3 THEN :now ELSE ready_at END, "
+            + "out_for_delivery_at = CASE WHEN :toCode = 4 THEN :now ELSE out_for_delivery_at END, "
+            + "delivered_at = CASE WHEN :toCode = 5 THEN :now ELSE delivered_at END, "
+            + "cancelled_at = CASE WHEN :toCode = 6 THEN :now ELSE cancelled_at END "
+            + "WHERE id = :orderId AND status_code = :fromCode", nativeQuery = true)
+    int transitionStatus(@org.springframework.data.repository.query.Param("orderId") Long orderId,
+            @org.springframework.data.repository.query.Param("fromCode") int fromCode,
+            @org.springframework.data.repository.query.Param("toCode") int toCode,
+            @org.springframework.data.repository.query.Param("now") java.time.LocalDateTime now);
 
-    @org.springframework.data.jpa.repository.Query("SELECT COUNT(o) FROM Order o WHERE o.createdAt >= :startDate")
-    Long countOrdersSince(@org.springframework.data.repository.query.Param("startDate") java.time.LocalDateTime startDate);
+    // Keyset pages of list projections, newest first. Each seeks past (createdAt, id) of the previous page's last row.
+    String LIST_VIEW_SELECT = "SELECT o.id AS id, o.status AS status, o.totalAmount AS totalAmount, o.donationAmount AS donationAmount, "
+            + "o.ngoId AS ngoId, o.deliveryAddress AS deliveryAddress, o.deliveryPhone AS deliveryPhone, o.createdAt AS createdAt, "
+            + "u.id AS userId, u.fullName AS userFullName, u.phone AS userPhone, r.id AS restaurantId, r.restaurantName AS restaurantName, "
+            + "d.id AS deliveryBoyId, d.fullName AS deliveryBoyFullName, d.phone AS deliveryBoyPhone "
+            + "FROM Order o LEFT JOIN o.user u LEFT JOIN o.restaurant r LEFT JOIN o.deliveryBoy d ";
 
-    @org.springframework.data.jpa.repository.Query("SELECT COUNT(o) FROM Order o WHERE o.user.id = :userId")
-    Long countByUserId(Long userId);
+    @org.springframework.data.jpa.repository.Query(LIST_VIEW_SELECT + "WHERE o.user.id = :userId "
+            + "AND (o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.id < :id)) ORDER BY o.createdAt DESC, o.id DESC")
+    List<com.kitchencloud.backend.dto.OrderListView> findUserPage(@org.springframework.data.repository.query.Param("userId") Long userId,
+            @org.springframework.data.repository.query.Param("createdAt") java.time.LocalDateTime createdAt,
+            @org.springframework.data.repository.query.Param("id") Long id,
+            org.springframework.data.domain.Pageable pageable);
 
-    @org.springframework.data.jpa.repository.Query("SELECT SUM(o.totalAmount) FROM Order o WHERE o.user.id = :userId")
-    Double sumTotalAmountByUserId(Long userId);
+    @org.springframework.data.jpa.repository.Query(LIST_VIEW_SELECT + "WHERE o.restaurant.id = :restaurantId "
+            + "AND (o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.id < :id)) ORDER BY o.createdAt DESC, o.id DESC")
+    List<com.kitchencloud.backend.dto.OrderListView> findRestaurantPage(@org.springframework.data.repository.query.Param("restaurantId") Long restaurantId,
+            @org.springframework.data.repository.query.Param("createdAt") java.time.LocalDateTime createdAt,
+            @org.springframework.data.repository.query.Param("id") Long id,
+            org.springframework.data.domain.Pageable pageable);
 
-    // Top 5 Restaurants by Revenue
-    @org.springframework.data.jpa.repository.Query("SELECT r.restaurantName, COUNT(o), SUM(o.totalAmount) FROM Order o JOIN o.restaurant r GROUP BY r.restaurantName ORDER BY SUM(o.totalAmount) DESC")
-    List<Object[]> findTopRestaurantsByRevenue(org.springframework.data.domain.Pageable pageable);
+    @org.springframework.data.jpa.repository.Query(LIST_VIEW_SELECT + "WHERE o.deliveryBoy.id = :deliveryBoyId "
+            + "AND (o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.id < :id)) ORDER BY o.createdAt DESC, o.id DESC")
+    List<com.kitchencloud.backend.dto.OrderListView> findDeliveryBoyPage(@org.springframework.data.repository.query.Param("deliveryBoyId") Long deliveryBoyId,
+            @org.springframework.data.repository.query.Param("createdAt") java.time.LocalDateTime createdAt,
+            @org.springframework.data.repository.query.Param("id") Long id,
+            org.springframework.data.domain.Pageable pageable);
 
-    // Orders by Cuisine
-    @org.springframework.data.jpa.repository.Query("SELECT r.cuisineType, COUNT(o) FROM Order o JOIN o.restaurant r GROUP BY r.cuisineType")
-    List<Object[]> countOrdersByCuisine();
+    @org.springframework.data.jpa.repository.Query(LIST_VIEW_SELECT
+            + "WHERE o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.id < :id) ORDER BY o.createdAt DESC, o.id DESC")
+    List<com.kitchencloud.backend.dto.OrderListView> findPage(@org.springframework.data.repository.query.Param("createdAt") java.time.LocalDateTime createdAt,
+            @org.springframework.data.repository.query.Param("id") Long id,
+            org.springframework.data.domain.Pageable pageable);
+
+    @org.springframework.data.jpa.repository.Query(LIST_VIEW_SELECT
+            + "WHERE o.status = :status AND o.deliveryBoy IS NULL ORDER BY o.createdAt DESC, o.id DESC")
+    List<com.kitchencloud.backend.dto.OrderListView> findUnassignedViews(
+            @org.springframework.data.repository.query.Param("status") OrderStatus status);
 
-    List<Order> findByDeliveryBoyId(Long deliveryBoyId);
+    // Users with at least one order since the cutoff; drives the recommendation precompute
+    @org.springframework.data.jpa.repository.Query("SELECT DISTINCT o.user.id FROM Order o WHERE o.createdAt >= :since AND o.user IS NOT NULL")
+    List<Long> findActiveUserIds(@org.springframework.data.repository.query.Param("since") java.time.LocalDateTime since);
 }
@@ -0,0 +1,53 @@
+package com.kitchencloud.backend.repository;
+
+import com.kitchencloud.backend.model.OrderRollupHourly;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Range reads over both rollup tables; rows come back as [bucketStart, key, orders, revenue, donations].
+@Repository
+public interface OrderRollupRepository extends JpaRepository<OrderRollupHourly, Long> {
+
+    @Query("SELECT r.bucketStart, '', SUM(r.orderCount), SUM(r.revenue), SUM(r.donationAmount) FROM OrderRollupHourly r "
+            + "WHERE r.bucketStart >= :from AND r.bucketStart < :to AND (:restaurantId IS NULL OR r.restaurantId = :restaurantId) "
+            + "GROUP BY r.bucketStart ORDER BY r.bucketStart")
+    List<Object[]> sumHourly(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+            @Param("restaurantId") Long restaurantId);
+
+    @Query("SELECT r.bucketStart, r.status, SUM(r.orderCount), SUM(r.revenue), SUM(r.donationAmount) FROM OrderRollupHourly r "
+            + "WHERE r.bucketStart >= :from AND r.bucketStart < :to AND (:restaurantId IS NULL OR r.restaurantId = :restaurantId) "
+            + "GROUP BY r.bucketStart, r.status ORDER BY r.bucketStart")
+    List<Object[]> sumHourlyByStatus(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+            @Param("restaurantId") Long restaurantId);
+
+    @Query("SELECT r.bucketStart, COALESCE(rest.cuisineType, 'Unknown'), SUM(r.orderCount), SUM(r.revenue), SUM(r.donationAmount) "
+            + "FROM OrderRollupHourly r LEFT JOIN Restaurant rest ON rest.id = r.restaurantId "
+            + "WHERE r.bucketStart >= :from AND r.bucketStart < :to AND (:restaurantId IS NULL OR r.restaurantId = :restaurantId) "
+            + "GROUP BY r.bucketStart, COALESCE(rest.cuisineType, 'Unknown') ORDER BY r.bucketStart")
+    List<Object[]> sumHourlyByCuisine(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+            @Param("restaurantId") Long restaurantId);
+
+    @Query("SELECT r.bucketStart, '', SUM(r.orderCount), SUM(r.revenue), SUM(r.donationAmount) FROM OrderRollupDaily r "
+            + "WHERE r.bucketStart >= :from AND r.bucketStart < :to AND (:restaurantId IS NULL OR r.restaurantId = :restaurantId) "
+            + "GROUP BY r.bucketStart ORDER BY r.bucketStart")
+    List<Object[]> sumDaily(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+            @Param("restaurantId") Long restaurantId);
+
+    @Query("SELECT r.bucketStart, r.status, SUM(r.orderCount), SUM(r.revenue), SUM(r.donationAmount) FROM OrderRollupDaily r "
+            + "WHERE r.bucketStart >= :from AND r.bucketStart < :to AND (:restaurantId IS NULL OR r.restaurantId = :restaurantId) "
+            + "GROUP BY r.bucketStart, r.status ORDER BY r.bucketStart")
+    List<Object[]> sumDailyByStatus(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+            @Param("restaurantId") Long restaurantId);
+
+    @Query("SELECT r.bucketStart, COALESCE(rest.cuisineType, 'Unknown'), SUM(r.orderCount), SUM(r.revenue), SUM(r.donationAmount) "
+            + "FROM OrderRollupDaily r LEFT JOIN Restaurant rest ON rest.id = r.restaurantId "
+            + "WHERE r.bucketStart >= :from AND r.bucketStart < :to AND (:restaurantId IS NULL OR r.restaurantId = :restaurantId) "
+            + "GROUP BY r.bucketStart, COALESCE(rest.cuisineType, 'Unknown') ORDER BY r.bucketStart")
+    List<Object[]> sumDailyByCuisine(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+            @Param("restaurantId") Long restaurantId);
+}
@@ -15,4 +15,33 @@ public interface RestaurantRepository extends JpaRepository<Restaurant, Long> {
     long countByApproved(boolean approved);
 
     java.util.List<Restaurant> findByRestaurantName(String restaurantName);
+
+    // Version lookups for conditional GETs; scalars only, no entity is loaded
+    @org.springframework.data.jpa.repository.Query("SELECT r.id, r.updatedAt FROM Restaurant r WHERE r.id = :id")
+    java.util.List<Object[]> findVersionById(@org.springframework.data.repository.query.Param("id") Long id);
+
+    @org.springframework.data.jpa.repository.Query("SELECT SUM(CASE WHEN r.approved = true THEN 1 ELSE 0 END), MAX(r.updatedAt) FROM Restaurant r")
+    java.util.List<Object[]> findApprovedListVersion();
+
+    // Approved restaurants without reading the image LOB; IS NULL only checks the row's null flag.
+    // Served by idx_restaurants_approved_cuisine; callers sort with JpaSort.unsafe
+    @org.springframework.data.jpa.repository.Query(value = "SELECT new com.kitchencloud.backend.dto.RestaurantSummaryDTO(r.id, "
+            + "r.restaurantName, r.ownerName, r.email, r.phone, r.cuisineType, r.address, r.description, r.approved, "
+            + "r.createdAt, r.updatedAt, CASE WHEN r.imageUrl IS NULL THEN false ELSE true END) "
+            + "FROM Restaurant r WHERE r.approved = true AND (:cuisine IS NULL OR r.cuisineType = :cuisine)",
+            countQuery = "SELECT COUNT(r) FROM Restaurant r WHERE r.approved = true AND (:cuisine IS NULL OR r.cuisineType = :cuisine)")
+    org.springframework.data.domain.Page<com.kitchencloud.backend.dto.RestaurantSummaryDTO> findApprovedSummaries(
+            @org.springframework.data.repository.query.Param("cuisine") String cuisine,
+            org.springframework.data.domain.Pageable pageable);
+
+    // Same projection for a handful of ids picked by the geo index
+    @org.springframework.data.jpa.repository.Query("SELECT new com.kitchencloud.backend.dto.RestaurantSummaryDTO(r.id, "
+            + "r.restaurantName, r.ownerName, r.email, r.phone, r.cuisineType, r.address, r.description, r.approved, "
+            + "r.createdAt, r.updatedAt, CASE WHEN r.imageUrl IS NULL THEN false ELSE true END) "
+            + "FROM Restaurant r WHERE r.approved = true AND r.id IN :ids")
+    java.util.List<com.kitchencloud.backend.dto.RestaurantSummaryDTO> findApprovedSummariesByIds(
+            @org.springframework.data.repository.query.Param("ids") java.util.Collection<Long> ids);
+
+    @org.springframework.data.jpa.repository.Query("SELECT r.imageUrl FROM Restaurant r WHERE r.id = :id")
+    java.util.List<String> findImageUrlById(@org.springframework.data.repository.query.Param("id") Long id);
 }
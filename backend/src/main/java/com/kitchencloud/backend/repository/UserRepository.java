@@ -2,6 +2,9 @@ package com.kitchencloud.backend.repository;
 
 import com.kitchencloud.backend.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -13,4 +16,26 @@ public interface UserRepository extends JpaRepository<User, Long> {
     java.util.List<User> findByRole(String role);
 
     long countByRole(String role);
+
+    // Single-statement conditional debit; returns 0 when the balance is too low.
+    @Modifying
+    @Query("UPDATE User u SET u.loyaltyPoints = u.loyaltyPoints - :points WHERE u.id = :userId AND u.loyaltyPoints >= :points")
+    int debitLoyaltyPoints(@Param("userId") Long userId, @Param("points") int points);
+
+    @Modifying
+    @Query("UPDATE User u SET u.loyaltyPoints = u.loyaltyPoints + :points WHERE u.id = :userId")
+    int creditLoyaltyPoints(@Param("userId") Long userId, @Param("points") int points);
+
+    // Recomputes the cached balance from the ledger in one statement, so it cannot race a debit.
+    @Modifying
+    @Query(value = "UPDATE users u SET u.loyalty_points = (SELECT COALESCE(SUM(t.points), 0) FROM loyalty_transactions t WHERE t.user_id = u.id) WHERE u.id = :userId", nativeQuery = true)
+    int resetLoyaltyPointsFromLedger(@Param("userId") Long userId);
+
+    // One grouped query for a page of customers with their order totals; callers sort with JpaSort.unsafe
+    @Query(value = "SELECT new com.kitchencloud.backend.dto.CustomerDTO(u.id, u.fullName, u.email, u.phone, u.createdAt, "
+            + "COUNT(o.id), COALESCE(SUM(o.totalAmount), 0.0), u.status, u.loyaltyPoints) "
+            + "FROM User u LEFT JOIN Order o ON o.user = u WHERE u.role = :role GROUP BY u.id",
+            countQuery = "SELECT COUNT(u) FROM User u WHERE u.role = :role")
+    org.springframework.data.domain.Page<com.kitchencloud.backend.dto.CustomerDTO> findCustomerSummaries(
+            @Param("role") String role, org.springframework.data.domain.Pageable pageable);
 }
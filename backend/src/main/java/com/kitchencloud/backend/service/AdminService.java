@@ -65,6 +65,8 @@ public class AdminService {
                 .orElseThrow(() -> new RuntimeException("Restaurant not found"));
         restaurant.setApproved(true);
         restaurantRepository.save(restaurant);
+        adminStatsService.invalidatePartyCounts();
+        eventPublisher.publishEvent(new com.kitchencloud.backend.event.RestaurantChangedEvent(id));
     }
 
     public void rejectRestaurant(Long id) {
@@ -72,10 +74,23 @@ public class AdminService {
                 .orElseThrow(() -> new RuntimeException("Restaurant not found"));
         restaurant.setApproved(false);
         restaurantRepository.save(restaurant);
+        adminStatsService.invalidatePartyCounts();
+        eventPublisher.publishEvent(new com.kitchencloud.backend.event.RestaurantChangedEvent(id));
+    }
+
+    public void updateRestaurantLocation(Long id, Double latitude, Double longitude) {
+        Restaurant restaurant = restaurantRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Restaurant not found"));
+        restaurant.setLatitude(latitude);
+        restaurant.setLongitude(longitude);
+        restaurantRepository.save(restaurant);
+        eventPublisher.publishEvent(new com.kitchencloud.backend.event.RestaurantChangedEvent(id));
     }
 
     public void deleteRestaurant(Long id) {
         restaurantRepository.deleteById(id);
+        adminStatsService.invalidatePartyCounts();
+        eventPublisher.publishEvent(new com.kitchencloud.backend.event.RestaurantChangedEvent(id));
     }
 
     public void approveDeliveryBoy(Long id) {
@@ -83,6 +98,7 @@ public class AdminService {
                 .orElseThrow(() -> new RuntimeException("Delivery Boy not found"));
         deliveryBoy.setApproved(true);
         deliveryBoyRepository.save(deliveryBoy);
+        adminStatsService.invalidatePartyCounts();
     }
 
     public void rejectDeliveryBoy(Long id) {
@@ -90,6 +106,7 @@ public class AdminService {
                 .orElseThrow(() -> new RuntimeException("Delivery Boy not found"));
         deliveryBoy.setApproved(false);
         deliveryBoyRepository.save(deliveryBoy);
+        adminStatsService.invalidatePartyCounts();
     }
 
     public void approveNGO(Long id) {
@@ -111,90 +128,67 @@ public class AdminService {
     @Autowired
     private com.kitchencloud.backend.repository.OrderRepository orderRepository;
 
-    public java.util.List<com.kitchencloud.backend.dto.CustomerDTO> getAllCustomers() {
-        java.util.List<com.kitchencloud.backend.model.User> users = userRepository.findByRole("USER");
-        java.util.List<com.kitchencloud.backend.dto.CustomerDTO> dtos = new java.util.ArrayList<>();
-
-        for (com.kitchencloud.backend.model.User user : users) {
-            com.kitchencloud.backend.dto.CustomerDTO dto = new com.kitchencloud.backend.dto.CustomerDTO();
-            dto.setId(user.getId());
-            dto.setFullName(user.getFullName());
-            dto.setEmail(user.getEmail());
-            dto.setPhone(user.getPhone());
-            dto.setCreatedAt(user.getCreatedAt());
-            dto.setStatus(user.getStatus());
-            dto.setLoyaltyPoints(user.getLoyaltyPoints());
-
-            // Calculate stats
-            Long ordersCount = orderRepository.countByUserId(user.getId());
-            Double totalSpent = orderRepository.sumTotalAmountByUserId(user.getId());
-
-            dto.setOrdersCount(ordersCount != null ? ordersCount : 0L);
-            dto.setTotalSpent(totalSpent != null ? totalSpent : 0.0);
-
-            dtos.add(dto);
+    // Sort keys: spend, orders, recent (default), name
+    public org.springframework.data.domain.Page<com.kitchencloud.backend.dto.CustomerDTO> getAllCustomers(
+            int page, int size, String sort, String direction) {
+        org.springframework.data.domain.Sort.Direction dir = "asc".equalsIgnoreCase(direction)
+                ? org.springframework.data.domain.Sort.Direction.ASC
+                : org.springframework.data.domain.Sort.Direction.DESC;
+        String expression;
+        switch (sort == null ? "" : sort.toLowerCase()) {
+            case "spend":
+                expression = "COALESCE(SUM(o.totalAmount), 0.0)";
+                break;
+            case "orders":
+                expression = "COUNT(o.id)";
+                break;
+            case "name":
+                expression = "u.fullName";
+                break;
+            default:
+                expression = "u.createdAt";
         }
-        return dtos;
+        // Tie-break on id so pages are stable
+        org.springframework.data.domain.Sort order = org.springframework.data.jpa.domain.JpaSort.unsafe(dir, expression)
+                .and(org.springframework.data.jpa.domain.JpaSort.unsafe(dir, "u.id"));
+        int pageSize = Math.min(Math.max(size, 1), 500);
+        return userRepository.findCustomerSummaries("USER",
+                org.springframework.data.domain.PageRequest.of(Math.max(page, 0), pageSize, order));
     }
 
-    public java.util.Map<String, Object> getDashboardStats() {
-        long totalCustomers = userRepository.countByRole("USER");
-        long activeRestaurants = restaurantRepository.countByApproved(true);
-        long pendingRestaurants = restaurantRepository.countByApproved(false);
-        long activeDeliveryBoys = deliveryBoyRepository.countByApproved(true);
-        long pendingDeliveryBoys = deliveryBoyRepository.countByApproved(false);
-        long totalOrders = orderRepository.count();
-        Double totalRevenue = orderRepository.calculateTotalRevenue();
-
-        java.util.Map<String, Object> stats = new java.util.HashMap<>();
-        stats.put("totalCustomers", totalCustomers);
-        stats.put("activeRestaurants", activeRestaurants);
-        stats.put("pendingRestaurants", pendingRestaurants);
-        stats.put("activeDeliveryBoys", activeDeliveryBoys);
-        stats.put("pendingDeliveryBoys", pendingDeliveryBoys);
-        stats.put("totalOrders", totalOrders);
-        stats.put("totalRevenue", totalRevenue != null ? totalRevenue : 0.0);
-        
-        java.util.List<Object[]> statusCounts = orderRepository.countOrdersByStatus();
-        java.util.Map<String, Long> statusMap = new java.util.HashMap<>();
-        for (Object[] row : statusCounts) {
-            statusMap.put((String) row[0], (Long) row[1]);
-        }
-        stats.put("ordersPerStatus", statusMap);
-        
-        // Weekly Stats (Last 7 Days)
-        java.time.LocalDateTime sevenDaysAgo = java.time.LocalDateTime.now().minusDays(7);
-        Double weeklyRevenue = orderRepository.calculateRevenueSince(sevenDaysAgo);
-        Long weeklyOrdersCount = orderRepository.countOrdersSince(sevenDaysAgo);
-        
-        stats.put("weeklyRevenue", weeklyRevenue != null ? weeklyRevenue : 0.0);
-        stats.put("weeklyOrders", weeklyOrdersCount != null ? weeklyOrdersCount : 0L);
-
-        // Top Restaurants
-        java.util.List<Object[]> topRestRaw = orderRepository.findTopRestaurantsByRevenue(org.springframework.data.domain.PageRequest.of(0, 5));
-        java.util.List<AdminStatsDTO.TopRestaurantDTO> topRestaurants = new java.util.ArrayList<>();
-        for (Object[] row : topRestRaw) {
-            AdminStatsDTO.TopRestaurantDTO dto = new AdminStatsDTO.TopRestaurantDTO();
-            dto.setName((String) row[0]);
-            dto.setOrders((Long) row[1]);
-            dto.setRevenue((Double) row[2]);
-            topRestaurants.add(dto);
-        }
-        stats.put("topRestaurants", topRestaurants);
-
-        // Cuisine Data
-        java.util.List<Object[]> cuisineRaw = orderRepository.countOrdersByCuisine();
-        java.util.Map<String, Long> cuisineMap = new java.util.HashMap<>();
-        for (Object[] row : cuisineRaw) {
-             String cuisine = (String) row[0];
-             if (cuisine == null) cuisine = "Unknown";
-             cuisineMap.put(cuisine, (Long) row[1]);
-        }
-        stats.put("cuisineData", cuisineMap);
+    // Full customer export as CSV, streamed row by row from a MySQL streaming result set
+    public void exportCustomersCsv(java.io.OutputStream out) throws java.io.IOException {
+        org.springframework.jdbc.core.JdbcTemplate streaming = new org.springframework.jdbc.core.JdbcTemplate(dataSource);
+        streaming.setFetchSize(Integer.MIN_VALUE);
+
+        java.io.Writer writer = new java.io.BufferedWriter(
+                new java.io.OutputStreamWriter(out, java.nio.charset.StandardCharsets.UTF_8), 64 * 1024);
+        writer.write("id,fullName,email,phone,createdAt,status,loyaltyPoints,ordersCount,totalSpent\n");
+        streaming.query("SELECT u.id, u.full_name, u.email, u.phone, u.created_at, u.status, u.loyalty_points, "
+                + "COUNT(o.id), COALESCE(SUM(o.total_amount), 0) FROM users u LEFT JOIN orders o ON o.user_id = u.id "
+                + "WHERE u.role = 'USER' GROUP BY u.id ORDER BY u.id", rs -> {
+                    try {
+                        writer.write(rs.getLong(1) + "," + CsvUtils.escape(rs.getString(2)) + "," + CsvUtils.escape(rs.getString(3)) + ","
+                                + CsvUtils.escape(rs.getString(4)) + "," + CsvUtils.escape(rs.getString(5)) + ","
+                                + CsvUtils.escape(rs.getString(6)) + ","
+                                + rs.getInt(7) + "," + rs.getLong(8) + "," + rs.getDouble(9) + "\n");
+                    } catch (java.io.IOException e) {
+                        throw new java.io.UncheckedIOException(e);
+                    }
+                });
+        writer.flush();
+    }
 
-        return stats;
+    @Autowired
+    private javax.sql.DataSource dataSource;
+
+    public java.util.Map<String, Object> getDashboardStats() {
+        return adminStatsService.getDashboardStats();
     }
 
+    @Autowired
+    private AdminStatsService adminStatsService;
+
     @Autowired
     private FileStorageService fileStorageService;
 
@@ -210,7 +204,9 @@ public class AdminService {
                     r.setEmail("owner@mykitchen.com");
                     r.setPassword("password");
                     r.setApproved(true);
-                    return restaurantRepository.save(r);
+                    Restaurant saved = restaurantRepository.save(r);
+                    eventPublisher.publishEvent(new com.kitchencloud.backend.event.RestaurantChangedEvent(saved.getId()));
+                    return saved;
                 });
 
         MenuItem item = new MenuItem();
@@ -229,6 +225,7 @@ public class AdminService {
         item.setRestaurant(myKitchen);
 
         menuItemRepository.save(item);
+        eventPublisher.publishEvent(new com.kitchencloud.backend.event.MenuItemChangedEvent(item.getId(), myKitchen.getId()));
     }
 
     public void updateDish(Long id, com.kitchencloud.backend.dto.MenuItemDTO dto,
@@ -250,6 +247,7 @@ public class AdminService {
         item.setAvailable(dto.isAvailable());
 
         menuItemRepository.save(item);
+        publishMenuItemChanged(item);
     }
 
     public void deleteDish(Long id) {
@@ -257,37 +255,32 @@ public class AdminService {
                 .orElseThrow(() -> new RuntimeException("Dish not found"));
         item.setDeleted(true);
         menuItemRepository.save(item);
+        publishMenuItemChanged(item);
     }
 
-    public java.util.List<com.kitchencloud.backend.model.Order> getRecentOrders() {
-        return orderRepository.findTop5ByOrderByCreatedAtDesc();
+    private void publishMenuItemChanged(MenuItem item) {
+        eventPublisher.publishEvent(new com.kitchencloud.backend.event.MenuItemChangedEvent(item.getId(),
+                item.getRestaurant() != null ? item.getRestaurant().getId() : null));
     }
 
-    public java.util.List<com.kitchencloud.backend.model.Order> getAllOrders() {
-        return orderRepository.findAll(org.springframework.data.domain.Sort
-                .by(org.springframework.data.domain.Sort.Direction.DESC, "createdAt"));
-    }
+    @Autowired
+    private org.springframework.context.ApplicationEventPublisher eventPublisher;
 
-    public void assignDeliveryBoyToOrder(Long orderId, Long deliveryBoyId) {
-        com.kitchencloud.backend.model.Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new RuntimeException("Order not found"));
+    public java.util.List<com.kitchencloud.backend.dto.OrderSummaryDTO> getRecentOrders() {
+        return orderListingService.all(null, 5).getOrders();
+    }
 
-        if (order.getDeliveryBoy() != null) {
-            throw new RuntimeException("Order already assigned to a delivery boy");
-        }
+    public OrderListingService.OrderPage getAllOrders(String cursor, Integer limit) {
+        return orderListingService.all(cursor, limit);
+    }
 
-        com.kitchencloud.backend.model.DeliveryBoy deliveryBoy = deliveryBoyRepository.findById(deliveryBoyId)
-                .orElseThrow(() -> new RuntimeException("Delivery Boy not found"));
+    @Autowired
+    private OrderListingService orderListingService;
 
-        // No need to check role as DeliveryBoy entity is strictly for delivery boys
-        // But need to check if approved if that logic is strictly enforced (optional
-        // for admin override)
-        if (!deliveryBoy.isApproved()) {
-            throw new RuntimeException("Delivery Boy is not approved");
-        }
+    @Autowired
+    private DeliveryAssignmentService deliveryAssignmentService;
 
-        order.setDeliveryBoy(deliveryBoy);
-        order.setStatus("out-for-delivery");
-        orderRepository.save(order);
+    public void assignDeliveryBoyToOrder(Long orderId, Long deliveryBoyId) {
+        deliveryAssignmentService.assign(orderId, deliveryBoyId);
     }
 }
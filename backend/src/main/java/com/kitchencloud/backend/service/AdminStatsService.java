@@ -0,0 +1,300 @@
+package com.kitchencloud.backend.service;
+
+import com.kitchencloud.backend.dto.AdminStatsDTO;
+import com.kitchencloud.backend.event.OrderEvent;
+import com.kitchencloud.backend.model.OrderStatus;
+import com.kitchencloud.backend.repository.DeliveryBoyRepository;
+import com.kitchencloud.backend.repository.OrderRepository;
+import com.kitchencloud.backend.repository.RestaurantRepository;
+import com.kitchencloud.backend.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory aggregate behind /api/admin/stats. Order counters are striped LongAdders bumped by
+ * committed order events, so reading the dashboard costs no order queries at all. A periodic pass
+ * rebuilds the aggregate from the database to correct any drift (missed events, restarts, manual
+ * SQL). Revenue is kept in paise so the adders stay exact.
+ */
+@Service
+public class AdminStatsService {
+
+    private static final int WEEK_HOURS = 7 * 24;
+    // One spare slot so the hour being rotated in never overwrites the oldest hour still in the window
+    private static final int HOUR_SLOTS = WEEK_HOURS + 2;
+
+    private static class RestaurantTotals {
+        private final LongAdder orders = new LongAdder();
+        private final LongAdder revenuePaise = new LongAdder();
+    }
+
+    private static class HourBucket {
+        private final long hour;
+        private final LongAdder orders = new LongAdder();
+        private final LongAdder revenuePaise = new LongAdder();
+
+        private HourBucket(long hour) {
+            this.hour = hour;
+        }
+    }
+
+    private static class Aggregate {
+        private final LongAdder totalOrders = new LongAdder();
+        private final LongAdder revenuePaise = new LongAdder();
+        private final LongAdder[] ordersPerStatus = new LongAdder[OrderStatus.values().length];
+        private final Map<String, RestaurantTotals> restaurants = new ConcurrentHashMap<>();
+        private final Map<String, LongAdder> cuisines = new ConcurrentHashMap<>();
+        private final AtomicReferenceArray<HourBucket> hours = new AtomicReferenceArray<>(HOUR_SLOTS);
+
+        private Aggregate() {
+            for (int i = 0; i < ordersPerStatus.length; i++) {
+                ordersPerStatus[i] = new LongAdder();
+            }
+        }
+
+        private HourBucket hour(long hour) {
+            int slot = (int) Math.floorMod(hour, (long) HOUR_SLOTS);
+            while (true) {
+                HourBucket bucket = hours.get(slot);
+                if (bucket != null && bucket.hour == hour) {
+                    return bucket;
+                }
+                if (bucket != null && bucket.hour > hour) {
+                    return null; // Older than the window
+                }
+                HourBucket fresh = new HourBucket(hour);
+                if (hours.compareAndSet(slot, bucket, fresh)) {
+                    return fresh;
+                }
+            }
+        }
+    }
+
+    @Value("${admin.stats.party-counts-ttl-ms:15000}")
+    private long partyCountsTtlMs;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Autowired
+    private DeliveryBoyRepository deliveryBoyRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private volatile Aggregate aggregate;
+    private volatile Map<String, Long> partyCounts;
+    private volatile long partyCountsLoadedAt;
+    private volatile long lastReconcileDrift;
+    private volatile LocalDateTime lastReconciledAt;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(10)
+    public void load() {
+        reconcile();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderEvent(OrderEvent event) {
+        Aggregate current = aggregate;
+        if (current == null) {
+            return; // The initial load will see this order
+        }
+        if (OrderEvent.CREATED.equals(event.getType())) {
+            long paise = toPaise(event.getTotalAmount());
+            current.totalOrders.increment();
+            current.revenuePaise.add(paise);
+            if (event.getStatus() != null) {
+                current.ordersPerStatus[event.getStatus().ordinal()].increment();
+            }
+            RestaurantTotals restaurant = current.restaurants.computeIfAbsent(
+                    nameOrUnknown(event.getRestaurantName()), k -> new RestaurantTotals());
+            restaurant.orders.increment();
+            restaurant.revenuePaise.add(paise);
+            current.cuisines.computeIfAbsent(nameOrUnknown(event.getCuisineType()), k -> new LongAdder()).increment();
+            HourBucket bucket = current.hour(hourOf(event.getCreatedAt()));
+            if (bucket != null) {
+                bucket.orders.increment();
+                bucket.revenuePaise.add(paise);
+            }
+        } else if (event.getStatus() != event.getPreviousStatus()) {
+            if (event.getPreviousStatus() != null) {
+                current.ordersPerStatus[event.getPreviousStatus().ordinal()].decrement();
+            }
+            if (event.getStatus() != null) {
+                current.ordersPerStatus[event.getStatus().ordinal()].increment();
+            }
+        }
+    }
+
+    public Map<String, Object> getDashboardStats() {
+        Aggregate current = aggregate;
+        if (current == null) {
+            reconcile();
+            current = aggregate;
+        }
+        Map<String, Object> stats = new HashMap<>(getPartyCounts());
+        stats.put("totalOrders", current.totalOrders.sum());
+        stats.put("totalRevenue", fromPaise(current.revenuePaise.sum()));
+
+        Map<String, Long> statusMap = new HashMap<>();
+        for (OrderStatus status : OrderStatus.values()) {
+            long count = current.ordersPerStatus[status.ordinal()].sum();
+            if (count > 0) {
+                statusMap.put(status.getValue(), count);
+            }
+        }
+        stats.put("ordersPerStatus", statusMap);
+
+        long weekStart = hourOf(LocalDateTime.now().minusDays(7));
+        long weeklyOrders = 0;
+        long weeklyPaise = 0;
+        for (int i = 0; i < HOUR_SLOTS; i++) {
+            HourBucket bucket = current.hours.get(i);
+            if (bucket != null && bucket.hour >= weekStart) {
+                weeklyOrders += bucket.orders.sum();
+                weeklyPaise += bucket.revenuePaise.sum();
+            }
+        }
+        stats.put("weeklyRevenue", fromPaise(weeklyPaise));
+        stats.put("weeklyOrders", weeklyOrders);
+
+        List<AdminStatsDTO.TopRestaurantDTO> topRestaurants = new ArrayList<>();
+        current.restaurants.forEach((name, totals) -> {
+            AdminStatsDTO.TopRestaurantDTO dto = new AdminStatsDTO.TopRestaurantDTO();
+            dto.setName(name);
+            dto.setOrders(totals.orders.sum());
+            dto.setRevenue(fromPaise(totals.revenuePaise.sum()));
+            topRestaurants.add(dto);
+        });
+        topRestaurants.sort(Comparator.comparingDouble(AdminStatsDTO.TopRestaurantDTO::getRevenue).reversed());
+        stats.put("topRestaurants", topRestaurants.size() > 5 ? topRestaurants.subList(0, 5) : topRestaurants);
+
+        Map<String, Long> cuisineMap = new HashMap<>();
+        current.cuisines.forEach((cuisine, count) -> cuisineMap.put(cuisine, count.sum()));
+        stats.put("cuisineData", cuisineMap);
+        return stats;
+    }
+
+    public Map<String, Object> getHealth() {
+        Map<String, Object> health = new HashMap<>();
+        health.put("loaded", aggregate != null);
+        health.put("lastReconciledAt", lastReconciledAt);
+        health.put("lastReconcileDrift", lastReconcileDrift);
+        return health;
+    }
+
+    // Approvals and rejections change these counts; the next read reloads them
+    public void invalidatePartyCounts() {
+        partyCountsLoadedAt = 0;
+    }
+
+    /**
+     * Rebuilds the order aggregate from the database and swaps it in. Events that commit while the
+     * queries run may be counted by neither copy; the next pass picks them up.
+     */
+    @Scheduled(fixedDelayString = "${admin.stats.reconcile-ms:300000}", initialDelayString = "${admin.stats.reconcile-ms:300000}")
+    public synchronized void reconcile() {
+        long start = System.currentTimeMillis();
+        Aggregate fresh = new Aggregate();
+
+        jdbcTemplate.query("SELECT status_code, COUNT(*), COALESCE(SUM(total_amount), 0) FROM orders GROUP BY status_code", rs -> {
+            long count = rs.getLong(2);
+            fresh.totalOrders.add(count);
+            fresh.revenuePaise.add(toPaise(rs.getDouble(3)));
+            int code = rs.getInt(1);
+            if (!rs.wasNull()) {
+                fresh.ordersPerStatus[OrderStatus.fromCode(code).ordinal()].add(count);
+            }
+        });
+
+        for (Object[] row : orderRepository.findTopRestaurantsByRevenue(Pageable.unpaged())) {
+            RestaurantTotals totals = fresh.restaurants.computeIfAbsent(nameOrUnknown((String) row[0]), k -> new RestaurantTotals());
+            totals.orders.add((Long) row[1]);
+            totals.revenuePaise.add(toPaise((Double) row[2]));
+        }
+
+        for (Object[] row : orderRepository.countOrdersByCuisine()) {
+            fresh.cuisines.computeIfAbsent(nameOrUnknown((String) row[0]), k -> new LongAdder()).add((Long) row[1]);
+        }
+
+        LocalDateTime windowStart = LocalDateTime.now().minusDays(7).withMinute(0).withSecond(0).withNano(0);
+        // Weekly buckets come from the hourly rollup rather than a scan of orders
+        jdbcTemplate.query("SELECT bucket_start, SUM(order_count), COALESCE(SUM(revenue), 0) FROM order_rollup_hourly "
+                + "WHERE bucket_start >= ? GROUP BY bucket_start", rs -> {
+                    HourBucket bucket = fresh.hour(hourOf(rs.getTimestamp(1).toLocalDateTime()));
+                    if (bucket != null) {
+                        bucket.orders.add(rs.getLong(2));
+                        bucket.revenuePaise.add(toPaise(rs.getDouble(3)));
+                    }
+                }, Timestamp.valueOf(windowStart));
+
+        Aggregate previous = aggregate;
+        if (previous != null) {
+            lastReconcileDrift = fresh.totalOrders.sum() - previous.totalOrders.sum();
+            if (lastReconcileDrift != 0) {
+                System.out.println("Admin stats drift corrected: totalOrders off by " + lastReconcileDrift);
+            }
+        }
+        aggregate = fresh;
+        lastReconciledAt = LocalDateTime.now();
+        System.out.println("Admin stats reconciled in " + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    private Map<String, Long> getPartyCounts() {
+        Map<String, Long> counts = partyCounts;
+        if (counts == null || System.currentTimeMillis() - partyCountsLoadedAt > partyCountsTtlMs) {
+            counts = new HashMap<>();
+            counts.put("totalCustomers", userRepository.countByRole("USER"));
+            counts.put("activeRestaurants", restaurantRepository.countByApproved(true));
+            counts.put("pendingRestaurants", restaurantRepository.countByApproved(false));
+            counts.put("activeDeliveryBoys", deliveryBoyRepository.countByApproved(true));
+            counts.put("pendingDeliveryBoys", deliveryBoyRepository.countByApproved(false));
+            partyCounts = counts;
+            partyCountsLoadedAt = System.currentTimeMillis();
+        }
+        return counts;
+    }
+
+    private static long hourOf(LocalDateTime time) {
+        return (time != null ? time : LocalDateTime.now()).toEpochSecond(ZoneOffset.UTC) / 3600;
+    }
+
+    private static String nameOrUnknown(String name) {
+        return name != null ? name : "Unknown";
+    }
+
+    private static long toPaise(Double amount) {
+        return amount != null ? Math.round(amount * 100) : 0;
+    }
+
+    private static double fromPaise(long paise) {
+        return paise / 100.0;
+    }
+}
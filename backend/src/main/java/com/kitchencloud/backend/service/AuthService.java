@@ -41,6 +41,9 @@ public class AuthService {
     @Autowired
     private ImageService imageService;
 
+    @Autowired
+    private Geocoder geocoder;
+
     public AuthResponseDTO registerUser(UserRegisterDTO dto) {
         if (userRepository.findByEmail(dto.getEmail()).isPresent()) {
             return new AuthResponseDTO(false, "Email already exists", null, null, null);
@@ -70,6 +73,16 @@ public class AuthService {
         restaurant.setAddress(dto.getAddress());
         restaurant.setDescription(dto.getDescription());
         restaurant.setLicenseNumber(dto.getLicenseNumber());
+        if (dto.getLatitude() != null && dto.getLongitude() != null) {
+            restaurant.setLatitude(dto.getLatitude());
+            restaurant.setLongitude(dto.getLongitude());
+        } else {
+            double[] location = geocoder.geocode(dto.getAddress());
+            if (location != null) {
+                restaurant.setLatitude(location[0]);
+                restaurant.setLongitude(location[1]);
+            }
+        }
 
         if (image != null && !image.isEmpty()) {
             String imageUrl = imageService.saveImage(image);
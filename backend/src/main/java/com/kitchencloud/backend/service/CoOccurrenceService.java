@@ -0,0 +1,201 @@
+package com.kitchencloud.backend.service;
+
+import com.kitchencloud.backend.event.OrderEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * "Frequently ordered together": an in-memory item-item co-occurrence matrix. It is built once
+ * from order_items at startup and then bumped by every placed order. Complements are scored by
+ * cosine similarity (co-count / sqrt(freq a * freq b)), so items that are merely popular everywhere
+ * do not crowd out real pairings.
+ */
+@Service
+public class CoOccurrenceService {
+
+    private static class Matrix {
+        private final Map<Long, LongIntMap> neighbors = new HashMap<>();
+        private final LongIntMap frequency = new LongIntMap(1024);
+    }
+
+    @Value("${recommendations.cooccurrence.max-items-per-order:50}")
+    private int maxItemsPerOrder;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile Matrix matrix = new Matrix();
+    private volatile boolean loaded;
+    private final List<OrderEvent> placedWhileLoading = new ArrayList<>();
+    private final AtomicLong ordersIndexed = new AtomicLong();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(20)
+    public void load() {
+        long start = System.currentTimeMillis();
+        Matrix fresh = new Matrix();
+        long[] orders = { 0 };
+        List<Long> basket = new ArrayList<>();
+        long[] currentOrder = { -1 };
+        // Ids the scan actually read; an order committed mid-scan below the cursor is not among them
+        LongIntMap scanned = new LongIntMap(1024);
+
+        JdbcTemplate streaming = new JdbcTemplate(dataSource);
+        streaming.setFetchSize(Integer.MIN_VALUE);
+        streaming.query("SELECT order_id, menu_item_id FROM order_items WHERE menu_item_id IS NOT NULL ORDER BY order_id", rs -> {
+            long orderId = rs.getLong(1);
+            if (orderId != currentOrder[0]) {
+                addBasket(fresh, basket);
+                basket.clear();
+                currentOrder[0] = orderId;
+                scanned.addTo(orderId, 1);
+                orders[0]++;
+            }
+            basket.add(rs.getLong(2));
+        });
+        addBasket(fresh, basket);
+
+        // Orders placed while loading were held back; replay the ones the scan did not see
+        lock.writeLock().lock();
+        try {
+            for (OrderEvent event : placedWhileLoading) {
+                if (event.getOrderId() != null && scanned.get(event.getOrderId()) == 0) {
+                    addBasket(fresh, basketOf(event));
+                    orders[0]++;
+                }
+            }
+            placedWhileLoading.clear();
+            matrix = fresh;
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        ordersIndexed.set(orders[0]);
+        System.out.println("Co-occurrence matrix built from " + orders[0] + " orders (" + fresh.neighbors.size()
+                + " items) in " + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderEvent(OrderEvent event) {
+        if (!OrderEvent.CREATED.equals(event.getType()) || event.getItems() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                placedWhileLoading.add(event);
+                return;
+            }
+            addBasket(matrix, basketOf(event));
+        } finally {
+            lock.writeLock().unlock();
+        }
+        ordersIndexed.incrementAndGet();
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Top-k items most often ordered with the given ones, best first, excluding the seeds and
+     * anything in {@code exclude}. Reads only the in-memory matrix.
+     */
+    public List<Long> complements(Collection<Long> seeds, int k, Set<Long> exclude) {
+        Map<Long, Double> scores = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            Matrix current = matrix;
+            for (Long seed : seeds) {
+                LongIntMap row = seed != null ? current.neighbors.get(seed) : null;
+                if (row == null) {
+                    continue;
+                }
+                double seedFrequency = Math.max(1, current.frequency.get(seed));
+                row.forEach((item, count) -> {
+                    if (seeds.contains(item) || (exclude != null && exclude.contains(item))) {
+                        return;
+                    }
+                    double score = count / Math.sqrt(seedFrequency * Math.max(1, current.frequency.get(item)));
+                    scores.merge(item, score, Double::sum);
+                });
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        // Min-heap of size k keeps selection at O(n log k)
+        PriorityQueue<Map.Entry<Long, Double>> top = new PriorityQueue<>(Map.Entry.comparingByValue());
+        for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+            top.offer(entry);
+            if (top.size() > k) {
+                top.poll();
+            }
+        }
+        List<Long> result = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            result.add(0, top.poll().getKey());
+        }
+        return result;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            long pairs = 0;
+            for (LongIntMap row : matrix.neighbors.values()) {
+                pairs += row.size();
+            }
+            stats.put("items", matrix.neighbors.size());
+            stats.put("pairs", pairs / 2);
+        } finally {
+            lock.readLock().unlock();
+        }
+        stats.put("loaded", loaded);
+        stats.put("ordersIndexed", ordersIndexed.get());
+        return stats;
+    }
+
+    private static List<Long> basketOf(OrderEvent event) {
+        List<Long> basket = new ArrayList<>(event.getItems().size());
+        for (OrderEvent.Item item : event.getItems()) {
+            basket.add(item.getMenuItemId());
+        }
+        return basket;
+    }
+
+    private void addBasket(Matrix target, List<Long> basket) {
+        // Quantities do not matter here, only which distinct items share an order
+        long[] items = basket.stream().filter(id -> id != null && id > 0).mapToLong(Long::longValue)
+                .distinct().limit(maxItemsPerOrder).toArray();
+        for (long item : items) {
+            target.frequency.addTo(item, 1);
+        }
+        for (int i = 0; i < items.length; i++) {
+            for (int j = i + 1; j < items.length; j++) {
+                target.neighbors.computeIfAbsent(items[i], k -> new LongIntMap()).addTo(items[j], 1);
+                target.neighbors.computeIfAbsent(items[j], k -> new LongIntMap()).addTo(items[i], 1);
+            }
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.kitchencloud.backend.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * One Bloom filter of user ids per coupon code. A negative answer means the user has definitely
+ * never redeemed the code, so the database existence check can be skipped. Until the filters are
+ * loaded every lookup answers "maybe". Codes come from clients, so each filter starts small and
+ * grows with its actual redemptions, and the number of codes tracked is capped; once the cap is
+ * reached, codes without a filter also answer "maybe".
+ */
+@Service
+public class CouponRedemptionFilter {
+
+    public static final int MAX_CODE_LENGTH = 64; // coupon_redemptions.code
+
+    @Value("${coupons.bloom.initial-users-per-code:64}")
+    private int initialUsersPerCode;
+
+    @Value("${coupons.bloom.max-codes:10000}")
+    private int maxCodes;
+
+    @Value("${coupons.bloom.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final Map<String, GrowingBloomFilter> filters = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+    private volatile boolean saturated; // Some code was refused a filter because of max-codes
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.currentTimeMillis();
+        jdbcTemplate.query("SELECT code, user_id FROM coupon_redemptions",
+                rs -> { record(rs.getString(1), rs.getLong(2)); });
+        loaded = true;
+        System.out.println("Coupon Bloom filters loaded for " + filters.size() + " codes in "
+                + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    public boolean mightHaveRedeemed(String code, Long userId) {
+        if (!loaded) {
+            return true;
+        }
+        GrowingBloomFilter filter = filters.get(code);
+        if (filter == null) {
+            return saturated;
+        }
+        return filter.mightContain(userId);
+    }
+
+    public void record(String code, Long userId) {
+        GrowingBloomFilter filter = filters.get(code);
+        if (filter == null) {
+            if (filters.size() >= maxCodes) {
+                saturated = true;
+                return;
+            }
+            filter = filters.computeIfAbsent(code, c -> new GrowingBloomFilter(initialUsersPerCode, falsePositiveRate));
+        }
+        filter.put(userId);
+    }
+
+    // Chain of Bloom filters; each new stage holds twice as many users as the last, at half the
+    // false-positive rate, so the combined rate stays under fpp however many users redeem a code.
+    static class GrowingBloomFilter {
+        private volatile BloomFilter[] stages;
+        private int lastStageCount; // Guarded by this
+        private int lastStageCapacity;
+        private double lastStageFpp;
+
+        GrowingBloomFilter(int initialCapacity, double fpp) {
+            lastStageCapacity = Math.max(1, initialCapacity);
+            lastStageFpp = fpp / 2;
+            stages = new BloomFilter[] { new BloomFilter(lastStageCapacity, lastStageFpp) };
+        }
+
+        synchronized void put(long value) {
+            if (mightContain(value)) {
+                return;
+            }
+            if (lastStageCount >= lastStageCapacity) {
+                lastStageCapacity *= 2;
+                lastStageFpp /= 2;
+                BloomFilter[] grown = java.util.Arrays.copyOf(stages, stages.length + 1);
+                grown[stages.length] = new BloomFilter(lastStageCapacity, lastStageFpp);
+                lastStageCount = 0;
+                // Set the bits before publishing the array so readers never miss the value
+                grown[stages.length].put(value);
+                lastStageCount++;
+                stages = grown;
+                return;
+            }
+            stages[stages.length - 1].put(value);
+            lastStageCount++;
+        }
+
+        boolean mightContain(long value) {
+            for (BloomFilter stage : stages) {
+                if (stage.mightContain(value)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    static class BloomFilter {
+        private final AtomicLongArray bits;
+        private final long numBits;
+        private final int numHashes;
+
+        BloomFilter(int expectedInsertions, double fpp) {
+            long m = (long) Math.ceil(-expectedInsertions * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+            this.numBits = Math.max(64, (m + 63) / 64 * 64);
+            this.numHashes = Math.max(1, (int) Math.round((double) numBits / expectedInsertions * Math.log(2)));
+            this.bits = new AtomicLongArray((int) (numBits / 64));
+        }
+
+        void put(long value) {
+            long h1 = mix(value);
+            long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L);
+            for (int i = 0; i < numHashes; i++) {
+                long bit = Math.floorMod(h1 + i * h2, numBits);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long current;
+                while (((current = bits.get(word)) & mask) == 0
+                        && !bits.compareAndSet(word, current, current | mask)) {
+                    // retry until the bit is set
+                }
+            }
+        }
+
+        boolean mightContain(long value) {
+            long h1 = mix(value);
+            long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L);
+            for (int i = 0; i < numHashes; i++) {
+                long bit = Math.floorMod(h1 + i * h2, numBits);
+                if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // SplitMix64 finalizer
+        private static long mix(long z) {
+            z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+            z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+            return z ^ (z >>> 31);
+        }
+    }
+}
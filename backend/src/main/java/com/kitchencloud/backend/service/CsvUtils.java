@@ -0,0 +1,23 @@
+package com.kitchencloud.backend.service;
+
+// RFC 4180 quoting for the streaming CSV exports. Text that a spreadsheet would run as a formula
+// (names and addresses are user input) is prefixed with a quote so it opens as plain text.
+public final class CsvUtils {
+
+    private CsvUtils() {
+    }
+
+    public static String escape(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (!(value instanceof Number) && !text.isEmpty() && "=+-@\t\r".indexOf(text.charAt(0)) >= 0) {
+            text = "'" + text;
+        }
+        if (text.contains(",") || text.contains("\"") || text.contains("\n") || text.contains("\r")) {
+            return "\"" + text.replace("\"", "\"\"") + "\"";
+        }
+        return text;
+    }
+}
@@ -0,0 +1,110 @@
+package com.kitchencloud.backend.service;
+
+import com.kitchencloud.backend.dto.OrderRoutingView;
+import com.kitchencloud.backend.event.OrderEvent;
+import com.kitchencloud.backend.model.DeliveryBoy;
+import com.kitchencloud.backend.model.OrderStatus;
+import com.kitchencloud.backend.repository.DeliveryBoyRepository;
+import com.kitchencloud.backend.repository.OrderRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+/**
+ * Assigns delivery boys with a single conditional UPDATE, so when many riders claim the same
+ * order exactly one statement matches and the rest see zero affected rows. The order is only
+ * read back on the failure path, to explain why the claim lost.
+ */
+@Service
+public class DeliveryAssignmentService {
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private DeliveryBoyRepository deliveryBoyRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate attemptTransaction;
+
+    @PostConstruct
+    public void init() {
+        attemptTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Transactional
+    public void claim(Long orderId, Long deliveryBoyId) {
+        if (orderRepository.claimReadyOrder(orderId, deliveryBoyId, LocalDateTime.now()) == 1) {
+            publishAssigned(orderId, OrderStatus.READY);
+            return;
+        }
+        OrderRoutingView order = orderRepository.findRoutingById(orderId)
+                .orElseThrow(() -> new RuntimeException("Order not found"));
+        if (order.getDeliveryBoyId() != null) {
+            throw new RuntimeException("Order already assigned");
+        }
+        throw new RuntimeException("Order is not ready for pickup");
+    }
+
+    // Each attempt is its own transaction so a retry sees the status as it is now, not the
+    // snapshot the first attempt read.
+    public void assign(Long orderId, Long deliveryBoyId) {
+        for (int attempt = 0; attempt < 3; attempt++) {
+            if (Boolean.TRUE.equals(attemptTransaction.execute(tx -> tryAssign(orderId, deliveryBoyId)))) {
+                return;
+            }
+        }
+        throw new RuntimeException("Order is being updated concurrently, please retry");
+    }
+
+    // True once assigned, false when the status moved between the read and the compare-and-set
+    private boolean tryAssign(Long orderId, Long deliveryBoyId) {
+        OrderRoutingView order = orderRepository.findRoutingById(orderId)
+                .orElseThrow(() -> new RuntimeException("Order not found"));
+        if (order.getDeliveryBoyId() != null) {
+            throw new RuntimeException("Order already assigned to a delivery boy");
+        }
+        if (order.getStatus() == null || !order.getStatus().isAssignable()) {
+            throw new RuntimeException("Order can no longer be assigned (status: "
+                    + (order.getStatus() != null ? order.getStatus().getValue() : null) + ")");
+        }
+        if (orderRepository.assignOpenOrder(orderId, deliveryBoyId, order.getStatus().getCode(),
+                LocalDateTime.now()) == 1) {
+            publishAssigned(orderId, order.getStatus());
+            return true;
+        }
+        DeliveryBoy deliveryBoy = deliveryBoyRepository.findById(deliveryBoyId)
+                .orElseThrow(() -> new RuntimeException("Delivery Boy not found"));
+        if (!deliveryBoy.isApproved()) {
+            throw new RuntimeException("Delivery Boy is not approved");
+        }
+        return false;
+    }
+
+    // Dispatcher hand-off of a ready order; false when it was claimed, cancelled or the rider lost approval
+    @Transactional
+    public boolean dispatch(Long orderId, Long deliveryBoyId) {
+        if (orderRepository.assignOpenOrder(orderId, deliveryBoyId, OrderStatus.READY.getCode(),
+                LocalDateTime.now()) == 1) {
+            publishAssigned(orderId, OrderStatus.READY);
+            return true;
+        }
+        return false;
+    }
+
+    private void publishAssigned(Long orderId, OrderStatus previousStatus) {
+        orderRepository.findRoutingById(orderId).ifPresent(view ->
+                eventPublisher.publishEvent(OrderEvent.changed(OrderEvent.ASSIGNED, view, previousStatus)));
+    }
+}
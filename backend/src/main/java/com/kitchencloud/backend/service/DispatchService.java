@@ -0,0 +1,429 @@
+package com.kitchencloud.backend.service;
+
+import com.kitchencloud.backend.event.OrderEvent;
+import com.kitchencloud.backend.model.OrderStatus;
+import com.kitchencloud.backend.repository.OrderRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Automatic rider dispatch. Orders that reach READY are queued from their status event (the
+ * request thread only adds an id to an inbox); a dedicated thread wakes every interval-ms, loads
+ * the approved, available riders with their current load in one query and matches the waiting
+ * orders greedily through a priority queue of (order, rider) candidates scored on wait time,
+ * pickup distance and rider load. Each match goes through the same compare-and-set UPDATE as a
+ * manual assignment, so a rider self-claim or admin assignment racing the dispatcher is harmless.
+ */
+@Service
+public class DispatchService {
+
+    private static class WaitingOrder {
+        private final long orderId;
+        private final long readyAtMillis;
+        private final double[] pickup; // Restaurant position, null when unknown
+
+        private WaitingOrder(long orderId, long readyAtMillis, double[] pickup) {
+            this.orderId = orderId;
+            this.readyAtMillis = readyAtMillis;
+            this.pickup = pickup;
+        }
+    }
+
+    private static class Rider {
+        private final long id;
+        private final Double latitude;
+        private final Double longitude;
+        private int load;
+        private boolean usable = true;
+
+        private Rider(long id, Double latitude, Double longitude, int load) {
+            this.id = id;
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.load = load;
+        }
+    }
+
+    private static class Candidate {
+        private final WaitingOrder order;
+        private final Rider rider;
+        private final int riderLoad; // Load the score was computed with; stale once the rider takes another order
+        private final double score;
+
+        private Candidate(WaitingOrder order, Rider rider, double score) {
+            this.order = order;
+            this.rider = rider;
+            this.riderLoad = rider.load;
+            this.score = score;
+        }
+    }
+
+    @Value("${dispatch.enabled:false}")
+    private boolean enabled;
+
+    @Value("${dispatch.interval-ms:250}")
+    private long intervalMs;
+
+    @Value("${dispatch.batch-size:500}")
+    private int batchSize;
+
+    @Value("${dispatch.max-load:2}")
+    private int maxLoad;
+
+    @Value("${dispatch.weight.wait-per-minute:1.0}")
+    private double waitWeight;
+
+    @Value("${dispatch.weight.distance-per-km:0.5}")
+    private double distanceWeight;
+
+    @Value("${dispatch.weight.load:2.0}")
+    private double loadWeight;
+
+    // Pickup distance assumed when the restaurant or the rider has no known position
+    @Value("${dispatch.unknown-distance-km:5}")
+    private double unknownDistanceKm;
+
+    @Value("${dispatch.reconcile-ms:60000}")
+    private long reconcileMs;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private DeliveryAssignmentService deliveryAssignmentService;
+
+    @Autowired
+    private GeoIndexService geoIndexService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final ConcurrentLinkedQueue<Long> inbox = new ConcurrentLinkedQueue<>();
+    private final Map<Long, WaitingOrder> waiting = new ConcurrentHashMap<>(); // Written by the dispatcher thread only
+    private final Map<Long, Boolean> gone = new ConcurrentHashMap<>(); // Left READY before the dispatcher saw them
+    private ScheduledExecutorService dispatcher;
+    private volatile boolean started;
+    private long lastReconcileMillis;
+
+    private final AtomicLong queued = new AtomicLong();
+    private final AtomicLong assigned = new AtomicLong();
+    private final AtomicLong lostRaces = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private volatile int lastBatchOrders;
+    private volatile int lastBatchUnmatched;
+    private volatile long lastBatchMs;
+    private volatile long maxBatchMs;
+    private volatile int lastRiders;
+
+    // Ready-to-assigned latencies of recent dispatches, for percentiles
+    private final long[] latencies = new long[8192];
+    private long latencyCount;
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            return;
+        }
+        dispatcher = Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, "order-dispatch"));
+    }
+
+    // Starts after the schema migrations so the first reconcile sees status_code
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled || started) {
+            return;
+        }
+        started = true;
+        dispatcher.scheduleWithFixedDelay(this::tick, 0, intervalMs, TimeUnit.MILLISECONDS);
+        System.out.println("Order dispatch enabled: interval=" + intervalMs + "ms, batchSize=" + batchSize
+                + ", maxLoad=" + maxLoad);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (dispatcher != null) {
+            dispatcher.shutdownNow();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderEvent(OrderEvent event) {
+        if (!enabled || event.getOrderId() == null || event.getStatus() == null) {
+            return;
+        }
+        if (event.getStatus() == OrderStatus.READY && event.getDeliveryBoyId() == null) {
+            inbox.add(event.getOrderId());
+            queued.incrementAndGet();
+        } else if (event.getPreviousStatus() == OrderStatus.READY) {
+            gone.put(event.getOrderId(), Boolean.TRUE);
+        }
+    }
+
+    private void tick() {
+        try {
+            long now = System.currentTimeMillis();
+            if (now - lastReconcileMillis >= reconcileMs) {
+                lastReconcileMillis = now;
+                reconcile();
+            }
+            admitInbox();
+            if (!waiting.isEmpty()) {
+                dispatchBatch();
+            }
+        } catch (Exception e) {
+            // Keep the schedule alive; the next reconcile picks up anything this tick dropped
+            failures.incrementAndGet();
+            System.err.println("Dispatch tick failed: " + e.getMessage());
+        }
+    }
+
+    // Re-reads every ready, unassigned order so nothing depends on an event having arrived
+    private void reconcile() {
+        Map<Long, WaitingOrder> fresh = new HashMap<>();
+        jdbcTemplate.query("SELECT id, restaurant_id, ready_at FROM orders WHERE status_code = ? AND delivery_boy_id IS NULL",
+                rs -> {
+                    WaitingOrder order = waitingOrder(rs.getLong(1), rs.getLong(2), rs.getTimestamp(3));
+                    fresh.put(order.orderId, order);
+                }, OrderStatus.READY.getCode());
+        waiting.keySet().retainAll(fresh.keySet());
+        for (WaitingOrder order : fresh.values()) {
+            waiting.putIfAbsent(order.orderId, order);
+        }
+        gone.clear();
+    }
+
+    private void admitInbox() {
+        List<Long> ids = new ArrayList<>();
+        Long id;
+        while ((id = inbox.poll()) != null) {
+            if (!waiting.containsKey(id)) {
+                ids.add(id);
+            }
+        }
+        for (Long goneId : new ArrayList<>(gone.keySet())) {
+            waiting.remove(goneId);
+            gone.remove(goneId);
+        }
+        for (int from = 0; from < ids.size(); from += 1000) {
+            List<Long> chunk = ids.subList(from, Math.min(from + 1000, ids.size()));
+            String placeholders = String.join(",", Collections.nCopies(chunk.size(), "?"));
+            Object[] args = new Object[chunk.size() + 1];
+            args[0] = OrderStatus.READY.getCode();
+            for (int i = 0; i < chunk.size(); i++) {
+                args[i + 1] = chunk.get(i);
+            }
+            // Drops orders already claimed or cancelled while they sat in the inbox
+            jdbcTemplate.query("SELECT id, restaurant_id, ready_at FROM orders WHERE status_code = ? "
+                    + "AND delivery_boy_id IS NULL AND id IN (" + placeholders + ")",
+                    rs -> {
+                        WaitingOrder order = waitingOrder(rs.getLong(1), rs.getLong(2), rs.getTimestamp(3));
+                        waiting.put(order.orderId, order);
+                    }, args);
+        }
+    }
+
+    private WaitingOrder waitingOrder(long orderId, long restaurantId, Timestamp readyAt) {
+        long readyAtMillis = readyAt != null ? readyAt.getTime() : System.currentTimeMillis();
+        return new WaitingOrder(orderId, readyAtMillis, geoIndexService.positionOf(restaurantId));
+    }
+
+    private List<Rider> loadRiders() {
+        return jdbcTemplate.query("SELECT d.id, d.latitude, d.longitude, "
+                + "(SELECT COUNT(*) FROM orders o WHERE o.delivery_boy_id = d.id AND o.status_code = ?) "
+                + "FROM delivery_boys d WHERE d.approved = TRUE AND d.available = TRUE",
+                (rs, n) -> new Rider(rs.getLong(1), rs.getObject(2, Double.class), rs.getObject(3, Double.class),
+                        rs.getInt(4)),
+                OrderStatus.OUT_FOR_DELIVERY.getCode());
+    }
+
+    private void dispatchBatch() {
+        long start = System.currentTimeMillis();
+        List<Rider> riders = new ArrayList<>();
+        for (Rider rider : loadRiders()) {
+            if (rider.load < maxLoad) {
+                riders.add(rider);
+            }
+        }
+        lastRiders = riders.size();
+
+        // Longest-waiting orders first when more are waiting than one batch takes
+        List<WaitingOrder> batch = new ArrayList<>(waiting.values());
+        batch.sort((a, b) -> Long.compare(a.readyAtMillis, b.readyAtMillis));
+        if (batch.size() > batchSize) {
+            batch = batch.subList(0, batchSize);
+        }
+
+        int matched = 0;
+        if (!riders.isEmpty()) {
+            PriorityQueue<Candidate> queue = new PriorityQueue<>((a, b) -> Double.compare(b.score, a.score));
+            for (WaitingOrder order : batch) {
+                Candidate best = bestCandidate(order, riders, start);
+                if (best != null) {
+                    queue.offer(best);
+                }
+            }
+            while (!queue.isEmpty()) {
+                Candidate candidate = queue.poll();
+                Rider rider = candidate.rider;
+                if (!rider.usable || rider.load >= maxLoad || rider.load != candidate.riderLoad) {
+                    // The rider filled up or took another order since this pair was scored
+                    Candidate next = bestCandidate(candidate.order, riders, start);
+                    if (next != null) {
+                        queue.offer(next);
+                    }
+                    continue;
+                }
+                if (assign(candidate.order, rider)) {
+                    matched++;
+                } else if (orderStillWaiting(candidate.order.orderId)) {
+                    // The order is still open, so the rider is what failed (approval revoked)
+                    rider.usable = false;
+                    Candidate next = bestCandidate(candidate.order, riders, start);
+                    if (next != null) {
+                        queue.offer(next);
+                    }
+                }
+            }
+        }
+
+        long elapsed = System.currentTimeMillis() - start;
+        batches.incrementAndGet();
+        lastBatchOrders = batch.size();
+        lastBatchUnmatched = batch.size() - matched;
+        lastBatchMs = elapsed;
+        maxBatchMs = Math.max(maxBatchMs, elapsed);
+    }
+
+    // Higher is better: long waits rise to the top, far or busy riders sink
+    private Candidate bestCandidate(WaitingOrder order, List<Rider> riders, long now) {
+        double waitMinutes = Math.max(0, now - order.readyAtMillis) / 60000.0;
+        Candidate best = null;
+        for (Rider rider : riders) {
+            if (!rider.usable || rider.load >= maxLoad) {
+                continue;
+            }
+            double distance = order.pickup != null && rider.latitude != null && rider.longitude != null
+                    ? GeoIndexService.distanceKm(rider.latitude, rider.longitude, order.pickup[0], order.pickup[1])
+                    : unknownDistanceKm;
+            double score = waitWeight * waitMinutes - distanceWeight * distance - loadWeight * rider.load;
+            if (best == null || score > best.score) {
+                best = new Candidate(order, rider, score);
+            }
+        }
+        return best;
+    }
+
+    private boolean assign(WaitingOrder order, Rider rider) {
+        boolean won;
+        try {
+            won = deliveryAssignmentService.dispatch(order.orderId, rider.id);
+        } catch (Exception e) {
+            failures.incrementAndGet();
+            System.err.println("Dispatch of order " + order.orderId + " failed: " + e.getMessage());
+            return false;
+        }
+        if (won) {
+            rider.load++;
+            waiting.remove(order.orderId);
+            assigned.incrementAndGet();
+            recordLatency(System.currentTimeMillis() - order.readyAtMillis);
+        } else {
+            lostRaces.incrementAndGet();
+        }
+        return won;
+    }
+
+    private boolean orderStillWaiting(long orderId) {
+        boolean open = orderRepository.findRoutingById(orderId)
+                .map(view -> view.getStatus() == OrderStatus.READY && view.getDeliveryBoyId() == null)
+                .orElse(false);
+        if (!open) {
+            waiting.remove(orderId);
+        }
+        return open;
+    }
+
+    private synchronized void recordLatency(long millis) {
+        latencies[(int) (latencyCount++ % latencies.length)] = Math.max(millis, 0);
+    }
+
+    public synchronized void resetStats() {
+        latencyCount = 0;
+        assigned.set(0);
+        lostRaces.set(0);
+        batches.set(0);
+        failures.set(0);
+        queued.set(0);
+        maxBatchMs = 0;
+    }
+
+    public Map<String, Object> getStats() {
+        long[] sample;
+        synchronized (this) {
+            sample = Arrays.copyOf(latencies, (int) Math.min(latencyCount, latencies.length));
+        }
+        Arrays.sort(sample);
+        Map<String, Object> latency = new LinkedHashMap<>();
+        latency.put("samples", sample.length);
+        latency.put("p50", percentile(sample, 0.50));
+        latency.put("p90", percentile(sample, 0.90));
+        latency.put("p99", percentile(sample, 0.99));
+        latency.put("max", sample.length > 0 ? sample[sample.length - 1] : 0);
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("intervalMs", intervalMs);
+        stats.put("maxLoad", maxLoad);
+        stats.put("queued", queued.get());
+        stats.put("inbox", inbox.size());
+        stats.put("waiting", waiting.size());
+        stats.put("assigned", assigned.get());
+        stats.put("lostRaces", lostRaces.get());
+        stats.put("failures", failures.get());
+        stats.put("batches", batches.get());
+        stats.put("lastBatchOrders", lastBatchOrders);
+        stats.put("lastBatchUnmatched", lastBatchUnmatched);
+        stats.put("lastBatchMs", lastBatchMs);
+        stats.put("maxBatchMs", maxBatchMs);
+        stats.put("ridersWithCapacity", lastRiders);
+        stats.put("readyToAssignedMs", latency);
+        stats.put("at", LocalDateTime.now());
+        return stats;
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)];
+    }
+}
@@ -0,0 +1,219 @@
+package com.kitchencloud.backend.service;
+
+import com.kitchencloud.backend.event.OrderEvent;
+import com.kitchencloud.backend.repository.OrderItemRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-user favorite menu items (most ordered first), kept in a bounded LRU cache. A miss loads the
+ * user's item counts from the database once; after that every placed order bumps the counts in place.
+ * Orders are recognised by id, so an order already included in the load is never counted twice.
+ */
+@Service
+public class FavoritesCache {
+
+    // How many of a user's newest order ids an entry remembers to recognise an event it already counted
+    private static final int RECENT_ORDER_IDS = 32;
+
+    private static class Entry {
+        private final Map<Long, Integer> counts;
+        private final TreeSet<Long> recentOrderIds;
+        private volatile List<Long> top;
+
+        private Entry(Map<Long, Integer> counts, TreeSet<Long> recentOrderIds) {
+            this.counts = counts;
+            this.recentOrderIds = recentOrderIds;
+        }
+
+        // False when the order is already included in the counts
+        private boolean recordOrder(Long orderId) {
+            if (orderId == null) {
+                return true;
+            }
+            if (!recentOrderIds.add(orderId)) {
+                return false;
+            }
+            if (recentOrderIds.size() > RECENT_ORDER_IDS) {
+                recentOrderIds.pollFirst();
+            }
+            return true;
+        }
+    }
+
+    // A miss in progress; orders for the user that land meanwhile wait here until the entry is inserted
+    private static class Load {
+        private int loaders;
+        private final List<OrderEvent> pending = new ArrayList<>();
+    }
+
+    @Value("${recommendations.favorites.max-users:10000}")
+    private int maxUsers;
+
+    @Value("${recommendations.favorites.top-n:10}")
+    private int topN;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    // Access-ordered, so the eldest entry is the least recently used one. Guarded by itself.
+    private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+            if (size() > maxUsers) {
+                evictions.incrementAndGet();
+                return true;
+            }
+            return false;
+        }
+    };
+
+    // Users being loaded. Guarded by entries, so an order event either finds the entry or is queued here.
+    private final Map<Long, Load> loading = new HashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong duplicateEvents = new AtomicLong();
+
+    public List<Long> getFavoriteItemIds(Long userId) {
+        synchronized (entries) {
+            Entry entry = entries.get(userId);
+            if (entry != null) {
+                hits.incrementAndGet();
+                return entry.top;
+            }
+            loading.computeIfAbsent(userId, id -> new Load()).loaders++;
+        }
+        misses.incrementAndGet();
+
+        Entry loaded;
+        try {
+            loaded = load(userId);
+        } catch (RuntimeException e) {
+            synchronized (entries) {
+                release(userId);
+            }
+            throw e;
+        }
+        synchronized (entries) {
+            Load load = release(userId);
+            Entry existing = entries.get(userId);
+            if (existing != null) {
+                return existing.top;
+            }
+            // Orders queued mid-load; the ones the query already saw are skipped by their id
+            for (OrderEvent event : load.pending) {
+                apply(loaded, event);
+            }
+            load.pending.clear();
+            loaded.top = rank(loaded.counts);
+            entries.put(userId, loaded);
+            return loaded.top;
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderEvent(OrderEvent event) {
+        if (!OrderEvent.CREATED.equals(event.getType()) || event.getUserId() == null || event.getItems() == null) {
+            return;
+        }
+        synchronized (entries) {
+            // Counts as an access: a user who just ordered is likely to come back to the home page
+            Entry entry = entries.get(event.getUserId());
+            if (entry == null) {
+                Load load = loading.get(event.getUserId());
+                if (load != null) {
+                    load.pending.add(event);
+                }
+                return;
+            }
+            if (apply(entry, event)) {
+                entry.top = rank(entry.counts);
+            }
+        }
+    }
+
+    public void evict(Long userId) {
+        synchronized (entries) {
+            entries.remove(userId);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        synchronized (entries) {
+            stats.put("size", entries.size());
+        }
+        stats.put("maxUsers", maxUsers);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRate", hitCount + missCount == 0 ? 0.0 : (double) hitCount / (hitCount + missCount));
+        stats.put("evictions", evictions.get());
+        stats.put("duplicateEvents", duplicateEvents.get());
+        return stats;
+    }
+
+    private Entry load(Long userId) {
+        Map<Long, Integer> counts = new HashMap<>();
+        TreeSet<Long> orderIds = new TreeSet<>();
+        for (Object[] row : orderItemRepository.findUserItemLines(userId)) {
+            orderIds.add((Long) row[0]);
+            if (row[1] != null) {
+                counts.merge((Long) row[1], 1, Integer::sum);
+            }
+        }
+        while (orderIds.size() > RECENT_ORDER_IDS) {
+            orderIds.pollFirst();
+        }
+        Entry entry = new Entry(counts, orderIds);
+        entry.top = rank(counts);
+        return entry;
+    }
+
+    // Caller holds the entries lock
+    private Load release(Long userId) {
+        Load load = loading.get(userId);
+        if (--load.loaders == 0) {
+            loading.remove(userId);
+        }
+        return load;
+    }
+
+    // Caller holds the entries lock
+    private boolean apply(Entry entry, OrderEvent event) {
+        if (!entry.recordOrder(event.getOrderId())) {
+            duplicateEvents.incrementAndGet();
+            return false;
+        }
+        for (OrderEvent.Item item : event.getItems()) {
+            if (item.getMenuItemId() != null) {
+                entry.counts.merge(item.getMenuItemId(), 1, Integer::sum);
+            }
+        }
+        return true;
+    }
+
+    // Same order as the old GROUP BY query: most order lines first
+    private List<Long> rank(Map<Long, Integer> counts) {
+        List<Map.Entry<Long, Integer>> sorted = new ArrayList<>(counts.entrySet());
+        sorted.sort(Map.Entry.<Long, Integer>comparingByValue().reversed());
+        List<Long> top = new ArrayList<>(Math.min(topN, sorted.size()));
+        for (int i = 0; i < sorted.size() && i < topN; i++) {
+            top.add(sorted.get(i).getKey());
+        }
+        return List.copyOf(top);
+    }
+}
@@ -0,0 +1,97 @@
+package com.kitchencloud.backend.service;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Local geocoder: finds a known place name (locality or city) in the address and returns its
+ * centre. Addresses run from specific to general ("Baner Road, Pune"), so the earliest match
+ * wins. Ships with major Indian cities and some Pune/Mumbai localities; geo.gazetteer-file can add
+ * or override entries with "name,latitude,longitude" lines. No network calls.
+ */
+@Service
+public class GazetteerGeocoder implements Geocoder {
+
+    private static final Object[][] BUILT_IN = {
+            { "mumbai", 19.0760, 72.8777 }, { "bombay", 19.0760, 72.8777 }, { "navi mumbai", 19.0330, 73.0297 },
+            { "thane", 19.2183, 72.9781 }, { "andheri", 19.1136, 72.8697 }, { "bandra", 19.0596, 72.8295 },
+            { "powai", 19.1176, 72.9060 }, { "pune", 18.5204, 73.8567 }, { "pimpri", 18.6298, 73.7997 },
+            { "chinchwad", 18.6298, 73.7997 }, { "hinjewadi", 18.5913, 73.7389 }, { "kothrud", 18.5074, 73.8077 },
+            { "baner", 18.5590, 73.7868 }, { "hadapsar", 18.5089, 73.9260 }, { "wakad", 18.5987, 73.7688 },
+            { "viman nagar", 18.5679, 73.9143 }, { "delhi", 28.6139, 77.2090 }, { "new delhi", 28.6139, 77.2090 },
+            { "noida", 28.5355, 77.3910 }, { "gurugram", 28.4595, 77.0266 }, { "gurgaon", 28.4595, 77.0266 },
+            { "ghaziabad", 28.6692, 77.4538 }, { "bengaluru", 12.9716, 77.5946 }, { "bangalore", 12.9716, 77.5946 },
+            { "hyderabad", 17.3850, 78.4867 }, { "chennai", 13.0827, 80.2707 }, { "kolkata", 22.5726, 88.3639 },
+            { "ahmedabad", 23.0225, 72.5714 }, { "surat", 21.1702, 72.8311 }, { "vadodara", 22.3072, 73.1812 },
+            { "jaipur", 26.9124, 75.7873 }, { "lucknow", 26.8467, 80.9462 }, { "kanpur", 26.4499, 80.3319 },
+            { "nagpur", 21.1458, 79.0882 }, { "nashik", 19.9975, 73.7898 }, { "aurangabad", 19.8762, 75.3433 },
+            { "kolhapur", 16.7050, 74.2433 }, { "indore", 22.7196, 75.8577 }, { "bhopal", 23.2599, 77.4126 },
+            { "patna", 25.5941, 85.1376 }, { "agra", 27.1767, 78.0081 }, { "ludhiana", 30.9010, 75.8573 },
+            { "chandigarh", 30.7333, 76.7794 }, { "visakhapatnam", 17.6868, 83.2185 }, { "kochi", 9.9312, 76.2673 },
+            { "coimbatore", 11.0168, 76.9558 }, { "mysuru", 12.2958, 76.6394 }, { "mysore", 12.2958, 76.6394 },
+            { "panaji", 15.4909, 73.8278 }, { "goa", 15.4909, 73.8278 },
+    };
+
+    @Value("${geo.gazetteer-file:}")
+    private String gazetteerFile;
+
+    private final Map<String, double[]> places = new HashMap<>();
+
+    @PostConstruct
+    public void load() {
+        for (Object[] place : BUILT_IN) {
+            places.put((String) place[0], new double[] { (Double) place[1], (Double) place[2] });
+        }
+        if (gazetteerFile == null || gazetteerFile.isBlank()) {
+            return;
+        }
+        try {
+            int loaded = 0;
+            for (String line : Files.readAllLines(Paths.get(gazetteerFile), StandardCharsets.UTF_8)) {
+                String[] parts = line.split(",");
+                if (parts.length != 3 || line.startsWith("#")) {
+                    continue;
+                }
+                places.put(normalize(parts[0]).trim(),
+                        new double[] { Double.parseDouble(parts[1].trim()), Double.parseDouble(parts[2].trim()) });
+                loaded++;
+            }
+            System.out.println("Loaded " + loaded + " places from " + gazetteerFile);
+        } catch (Exception e) {
+            System.err.println("Could not read gazetteer file " + gazetteerFile + ": " + e.getMessage());
+        }
+    }
+
+    @Override
+    public double[] geocode(String address) {
+        if (address == null || address.isBlank()) {
+            return null;
+        }
+        String text = " " + normalize(address) + " ";
+        double[] best = null;
+        int bestAt = Integer.MAX_VALUE;
+        int bestLength = 0;
+        for (Map.Entry<String, double[]> place : places.entrySet()) {
+            int at = text.indexOf(" " + place.getKey() + " ");
+            // Earliest match wins; on a tie the longer name ("navi mumbai" over "mumbai")
+            if (at >= 0 && (at < bestAt || (at == bestAt && place.getKey().length() > bestLength))) {
+                best = place.getValue();
+                bestAt = at;
+                bestLength = place.getKey().length();
+            }
+        }
+        return best != null ? best.clone() : null;
+    }
+
+    private static String normalize(String text) {
+        return text.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]+", " ");
+    }
+}
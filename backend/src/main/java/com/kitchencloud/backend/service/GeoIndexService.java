@@ -0,0 +1,233 @@
+package com.kitchencloud.backend.service;
+
+import com.kitchencloud.backend.event.RestaurantChangedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Approved restaurants with coordinates on a fixed lat/lng grid (0.1 degree cells, about 11 km).
+ * Each cell is an immutable set of parallel arrays that writers replace (copy-on-write), so queries
+ * never lock. Nearest-N walks rings of cells outwards and stops once no closer point can exist.
+ * Kept current from RestaurantChangedEvent.
+ */
+@Service
+public class GeoIndexService {
+
+    public static final double MAX_RADIUS_KM = 500;
+
+    private static final double CELL_DEG = 0.1;
+    private static final double KM_PER_DEG = 111.32;
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+
+    public static class Hit {
+        private final long restaurantId;
+        private final double distanceKm;
+
+        private Hit(long restaurantId, double distanceKm) {
+            this.restaurantId = restaurantId;
+            this.distanceKm = distanceKm;
+        }
+
+        public long getRestaurantId() {
+            return restaurantId;
+        }
+
+        public double getDistanceKm() {
+            return distanceKm;
+        }
+    }
+
+    private static class Cell {
+        private final long[] ids;
+        private final double[] lats;
+        private final double[] lngs;
+
+        private Cell(long[] ids, double[] lats, double[] lngs) {
+            this.ids = ids;
+            this.lats = lats;
+            this.lngs = lngs;
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final Map<Long, Cell> cells = new ConcurrentHashMap<>();
+    private final Map<Long, double[]> positions = new HashMap<>(); // Guarded by this; writers only
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(20)
+    public void load() {
+        long start = System.currentTimeMillis();
+        jdbcTemplate.query("SELECT id, latitude, longitude FROM restaurants "
+                + "WHERE approved = true AND latitude IS NOT NULL AND longitude IS NOT NULL",
+                rs -> { put(rs.getLong(1), rs.getDouble(2), rs.getDouble(3)); });
+        System.out.println("Geo index loaded " + size() + " restaurants in " + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRestaurantChanged(RestaurantChangedEvent event) {
+        if (event.getRestaurantId() == null) {
+            return;
+        }
+        List<double[]> rows = jdbcTemplate.query("SELECT latitude, longitude FROM restaurants "
+                + "WHERE id = ? AND approved = true AND latitude IS NOT NULL AND longitude IS NOT NULL",
+                (rs, n) -> new double[] { rs.getDouble(1), rs.getDouble(2) }, event.getRestaurantId());
+        if (rows.isEmpty()) {
+            remove(event.getRestaurantId());
+        } else {
+            put(event.getRestaurantId(), rows.get(0)[0], rows.get(0)[1]);
+        }
+    }
+
+    public synchronized void put(long id, double lat, double lng) {
+        remove(id);
+        long key = cellKey(lat, lng);
+        Cell cell = cells.get(key);
+        int n = cell != null ? cell.ids.length : 0;
+        long[] ids = cell != null ? Arrays.copyOf(cell.ids, n + 1) : new long[1];
+        double[] lats = cell != null ? Arrays.copyOf(cell.lats, n + 1) : new double[1];
+        double[] lngs = cell != null ? Arrays.copyOf(cell.lngs, n + 1) : new double[1];
+        ids[n] = id;
+        lats[n] = lat;
+        lngs[n] = lng;
+        cells.put(key, new Cell(ids, lats, lngs));
+        positions.put(id, new double[] { lat, lng });
+    }
+
+    public synchronized void remove(long id) {
+        double[] position = positions.remove(id);
+        if (position == null) {
+            return;
+        }
+        long key = cellKey(position[0], position[1]);
+        Cell cell = cells.get(key);
+        if (cell == null) {
+            return;
+        }
+        int n = cell.ids.length;
+        if (n == 1) {
+            cells.remove(key);
+            return;
+        }
+        long[] ids = new long[n - 1];
+        double[] lats = new double[n - 1];
+        double[] lngs = new double[n - 1];
+        for (int i = 0, j = 0; i < n; i++) {
+            if (cell.ids[i] != id) {
+                ids[j] = cell.ids[i];
+                lats[j] = cell.lats[i];
+                lngs[j] = cell.lngs[i];
+                j++;
+            }
+        }
+        cells.put(key, new Cell(ids, lats, lngs));
+    }
+
+    // {lat, lng} of an indexed restaurant, or null when it is not approved or has no coordinates
+    public synchronized double[] positionOf(long id) {
+        double[] position = positions.get(id);
+        return position != null ? position.clone() : null;
+    }
+
+    public synchronized int size() {
+        return positions.size();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new java.util.LinkedHashMap<>();
+        int largest = 0;
+        for (Cell cell : cells.values()) {
+            largest = Math.max(largest, cell.ids.length);
+        }
+        stats.put("restaurants", size());
+        stats.put("cells", cells.size());
+        stats.put("largestCell", largest);
+        stats.put("cellDegrees", CELL_DEG);
+        return stats;
+    }
+
+    // Up to limit restaurants within radiusKm, closest first
+    public List<Hit> nearest(double lat, double lng, int limit, double radiusKm) {
+        double radius = Math.min(radiusKm, MAX_RADIUS_KM);
+        // Smallest cell side near this latitude, used to bound how close a ring of cells can be
+        double cellKm = CELL_DEG * KM_PER_DEG * Math.max(Math.cos(Math.toRadians(Math.abs(lat) + CELL_DEG)), 0.01);
+        int maxRing = (int) Math.ceil(radius / cellKm) + 1;
+        long centerLat = (long) Math.floor(lat / CELL_DEG);
+        long centerLng = (long) Math.floor(lng / CELL_DEG);
+
+        // Max-heap of the best limit hits so far
+        PriorityQueue<Hit> best = new PriorityQueue<>((a, b) -> Double.compare(b.distanceKm, a.distanceKm));
+        for (int ring = 0; ring <= maxRing; ring++) {
+            // Every point in this ring is at least (ring - 1) cells away
+            double ringMinKm = Math.max(ring - 1, 0) * cellKm;
+            if (ringMinKm > radius || (best.size() >= limit && ringMinKm > best.peek().distanceKm)) {
+                break;
+            }
+            if (ring == 0) {
+                scan(cellKey(centerLat, centerLng), lat, lng, radius, limit, best);
+                continue;
+            }
+            // Only the ring's perimeter; inner cells were scanned by earlier rings
+            for (long d = -ring; d <= ring; d++) {
+                scan(cellKey(centerLat - ring, centerLng + d), lat, lng, radius, limit, best);
+                scan(cellKey(centerLat + ring, centerLng + d), lat, lng, radius, limit, best);
+            }
+            for (long d = -ring + 1; d <= ring - 1; d++) {
+                scan(cellKey(centerLat + d, centerLng - ring), lat, lng, radius, limit, best);
+                scan(cellKey(centerLat + d, centerLng + ring), lat, lng, radius, limit, best);
+            }
+        }
+        List<Hit> hits = new ArrayList<>(best);
+        hits.sort((a, b) -> Double.compare(a.distanceKm, b.distanceKm));
+        return hits;
+    }
+
+    private void scan(long key, double lat, double lng, double radius, int limit, PriorityQueue<Hit> best) {
+        Cell cell = cells.get(key);
+        if (cell == null) {
+            return;
+        }
+        for (int i = 0; i < cell.ids.length; i++) {
+            double distance = distanceKm(lat, lng, cell.lats[i], cell.lngs[i]);
+            if (distance > radius) {
+                continue;
+            }
+            if (best.size() < limit) {
+                best.offer(new Hit(cell.ids[i], distance));
+            } else if (distance < best.peek().distanceKm) {
+                best.poll();
+                best.offer(new Hit(cell.ids[i], distance));
+            }
+        }
+    }
+
+    public static double distanceKm(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private static long cellKey(double lat, double lng) {
+        return cellKey((long) Math.floor(lat / CELL_DEG), (long) Math.floor(lng / CELL_DEG));
+    }
+
+    private static long cellKey(long latIndex, long lngIndex) {
+        return (latIndex << 32) | (lngIndex & 0xffffffffL);
+    }
+}
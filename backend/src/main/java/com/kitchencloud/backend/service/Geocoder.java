@@ -0,0 +1,11 @@
+package com.kitchencloud.backend.service;
+
+/**
+ * Turns a free-text address into coordinates. The default is GazetteerGeocoder, a local lookup of
+ * known places; declare another implementation as @Primary to plug in a real geocoding service.
+ */
+public interface Geocoder {
+
+    // {latitude, longitude}, or null when the address cannot be placed
+    double[] geocode(String address);
+}
@@ -1,11 +1,18 @@
 package com.kitchencloud.backend.service;
 
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 import java.io.IOException;
+import java.net.URI;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Base64;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
@@ -13,6 +20,10 @@ public class ImageService {
 
     private final String UPLOAD_DIR = "uploads/";
 
+    // Served inline and written to /uploads; anything else (svg included, it can carry script) is a download
+    private static final Set<String> RASTER_TYPES = Set.of("image/png", "image/jpeg", "image/jpg", "image/gif",
+            "image/webp", "image/bmp", "image/avif");
+
     public String saveImage(MultipartFile file) throws IOException {
         if (file.isEmpty()) {
             throw new IOException("Failed to store empty file.");
@@ -39,4 +50,77 @@ public class ImageService {
         // Return public URL path
         return "http://localhost:8080/uploads/" + filename;
     }
+
+    // Same storage and URL format as saveImage, for images that arrive as bytes (e.g. decoded data: URIs)
+    public String saveBytes(byte[] data, String mediaType) throws IOException {
+        Path uploadPath = Paths.get(UPLOAD_DIR);
+        if (!Files.exists(uploadPath)) {
+            Files.createDirectories(uploadPath);
+        }
+        String filename = UUID.randomUUID().toString() + extensionFor(mediaType);
+        Files.write(uploadPath.resolve(filename), data);
+        return "http://localhost:8080/uploads/" + filename;
+    }
+
+    // Decoded payload of a base64 data: URI, or null if the value is not one
+    public static byte[] decodeDataUri(String value) {
+        if (value == null || !value.startsWith("data:")) {
+            return null;
+        }
+        int comma = value.indexOf(',');
+        if (comma < 0 || !value.substring(0, comma).endsWith(";base64")) {
+            return null;
+        }
+        try {
+            return Base64.getMimeDecoder().decode(value.substring(comma + 1));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    public static String dataUriMediaType(String value) {
+        int end = value.indexOf(';');
+        return end > 5 ? value.substring(5, end) : "application/octet-stream";
+    }
+
+    public static boolean isRasterImage(String mediaType) {
+        return mediaType != null && RASTER_TYPES.contains(mediaType.trim().toLowerCase());
+    }
+
+    // Serves a stored image reference: inline data: URIs are decoded, URLs and paths are redirected to
+    public static ResponseEntity<byte[]> toResponse(String stored) {
+        if (stored == null || stored.isBlank()) {
+            return ResponseEntity.notFound().build();
+        }
+        byte[] inline = decodeDataUri(stored);
+        if (inline != null) {
+            String mediaType = dataUriMediaType(stored);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok().cacheControl(CacheControl.noCache())
+                    .header("X-Content-Type-Options", "nosniff");
+            if (isRasterImage(mediaType)) {
+                return response.contentType(MediaType.parseMediaType(mediaType.trim().toLowerCase())).body(inline);
+            }
+            return response.contentType(MediaType.APPLICATION_OCTET_STREAM)
+                    .header("Content-Disposition", "attachment").body(inline);
+        }
+        String target = stored.startsWith("http") || stored.startsWith("/") ? stored : "/" + stored;
+        try {
+            return ResponseEntity.status(HttpStatus.FOUND).location(URI.create(target)).build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    private static String extensionFor(String mediaType) {
+        switch (mediaType == null ? "" : mediaType.toLowerCase()) {
+            case "image/png":
+                return ".png";
+            case "image/gif":
+                return ".gif";
+            case "image/webp":
+                return ".webp";
+            default:
+                return ".jpg";
+        }
+    }
 }
@@ -0,0 +1,101 @@
+package com.kitchencloud.backend.service;
+
+import com.kitchencloud.backend.model.LoyaltyTransaction;
+import com.kitchencloud.backend.repository.LoyaltyTransactionRepository;
+import com.kitchencloud.backend.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Loyalty points as an append-only ledger. Balance changes are single conditional UPDATE statements
+ * on users.loyalty_points (the cached balance), each paired with a ledger row in the same transaction.
+ */
+@Service
+public class LoyaltyService {
+
+    public static final String EARN = "EARN";
+    public static final String REDEEM = "REDEEM";
+    public static final String OPENING_BALANCE = "OPENING_BALANCE";
+
+    @Value("${loyalty.reconcile.repair:false}")
+    private boolean repairOnReconcile;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LoyaltyTransactionRepository loyaltyTransactionRepository;
+
+    // Balance-only debit; returns false when the user cannot afford it. Record the ledger row once the order exists.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean debit(Long userId, int points) {
+        return userRepository.debitLoyaltyPoints(userId, points) == 1;
+    }
+
+    // Undoes a debit whose order was rejected before any ledger row was written.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void refund(Long userId, int points) {
+        userRepository.creditLoyaltyPoints(userId, points);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordRedemption(Long userId, Long orderId, int points) {
+        append(userId, orderId, -points, REDEEM);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void award(Long userId, Long orderId, int points) {
+        userRepository.creditLoyaltyPoints(userId, points);
+        append(userId, orderId, points, EARN);
+    }
+
+    public List<LoyaltyTransaction> getHistory(Long userId) {
+        return loyaltyTransactionRepository.findByUserIdOrderByCreatedAtDesc(userId);
+    }
+
+    // Compares every cached balance with its ledger sum; optionally rewrites drifted balances from the ledger.
+    @Scheduled(cron = "${loyalty.reconcile.cron:0 30 3 * * *}")
+    @Transactional
+    public Map<String, Object> reconcile() {
+        List<Object[]> mismatches = loyaltyTransactionRepository.findBalanceMismatches();
+        List<Map<String, Object>> details = new ArrayList<>();
+        for (Object[] row : mismatches) {
+            Long userId = ((Number) row[0]).longValue();
+            long cached = ((Number) row[1]).longValue();
+            long ledger = ((Number) row[2]).longValue();
+            System.err.println("Loyalty mismatch for user " + userId + ": cached=" + cached + ", ledger=" + ledger);
+            if (repairOnReconcile) {
+                userRepository.resetLoyaltyPointsFromLedger(userId);
+            }
+            Map<String, Object> detail = new HashMap<>();
+            detail.put("userId", userId);
+            detail.put("cachedBalance", cached);
+            detail.put("ledgerBalance", ledger);
+            details.add(detail);
+        }
+
+        Map<String, Object> report = new HashMap<>();
+        report.put("mismatches", details.size());
+        report.put("repaired", repairOnReconcile);
+        report.put("details", details);
+        return report;
+    }
+
+    private void append(Long userId, Long orderId, int points, String type) {
+        LoyaltyTransaction entry = new LoyaltyTransaction();
+        entry.setUserId(userId);
+        entry.setOrderId(orderId);
+        entry.setPoints(points);
+        entry.setType(type);
+        loyaltyTransactionRepository.save(entry);
+    }
+}
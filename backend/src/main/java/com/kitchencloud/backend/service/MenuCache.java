@@ -0,0 +1,164 @@
+package com.kitchencloud.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kitchencloud.backend.dto.ResourceVersion;
+import com.kitchencloud.backend.event.MenuItemChangedEvent;
+import com.kitchencloud.backend.model.MenuItem;
+import com.kitchencloud.backend.model.Restaurant;
+import com.kitchencloud.backend.repository.MenuItemRepository;
+import com.kitchencloud.backend.repository.RestaurantRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-restaurant menu snapshots (non-deleted items) together with their serialized JSON, so a menu
+ * page view is a map lookup. Every menu write publishes a MenuItemChangedEvent and only that
+ * restaurant's snapshot is dropped. Each snapshot carries the restaurant's generation at load time; a
+ * load that raced with a write is ignored on read instead of being served. Snapshots also carry the
+ * menu's ETag/Last-Modified so revalidation of a cached menu needs no query at all.
+ */
+@Service
+public class MenuCache {
+
+    public static final String FEATURED_RESTAURANT = "My Kitchen";
+
+    public static class Snapshot {
+        private final long generation;
+        private final ResourceVersion version;
+        private final List<MenuItem> items;
+        private final byte[] json;
+
+        private Snapshot(long generation, ResourceVersion version, List<MenuItem> items, byte[] json) {
+            this.generation = generation;
+            this.version = version;
+            this.items = items;
+            this.json = json;
+        }
+
+        public ResourceVersion getVersion() {
+            return version;
+        }
+
+        public List<MenuItem> getItems() {
+            return items;
+        }
+
+        public byte[] getJson() {
+            return json;
+        }
+    }
+
+    private static final Snapshot EMPTY = new Snapshot(0, ResourceVersion.of("menu", null, 0, null), List.of(), "[]".getBytes());
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final Map<Long, Snapshot> snapshots = new ConcurrentHashMap<>();
+    private final Map<Long, Long> generations = new ConcurrentHashMap<>();
+    private volatile Long featuredRestaurantId;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public Snapshot getMenu(Long restaurantId) {
+        Snapshot snapshot = peek(restaurantId);
+        return snapshot != null ? snapshot : load(restaurantId);
+    }
+
+    // Cached snapshot if it is still current, otherwise null; never touches the database
+    public Snapshot peek(Long restaurantId) {
+        Snapshot snapshot = snapshots.get(restaurantId);
+        if (snapshot != null && snapshot.generation == generations.getOrDefault(restaurantId, 0L)) {
+            hits.incrementAndGet();
+            return snapshot;
+        }
+        return null;
+    }
+
+    // Menu ETag/Last-Modified from one aggregate query, for revalidating a menu that is not cached
+    public ResourceVersion currentVersion(Long restaurantId) {
+        Object[] row = menuItemRepository.findMenuVersion(restaurantId).get(0);
+        return ResourceVersion.of("menu", restaurantId, row[0] != null ? ((Number) row[0]).longValue() : 0,
+                (LocalDateTime) row[1]);
+    }
+
+    private Snapshot load(Long restaurantId) {
+        misses.incrementAndGet();
+        long generation = generations.getOrDefault(restaurantId, 0L);
+        ResourceVersion version = currentVersion(restaurantId);
+        List<MenuItem> items = List.copyOf(menuItemRepository.findByRestaurantIdAndDeletedFalse(restaurantId));
+        Snapshot snapshot;
+        try {
+            snapshot = new Snapshot(generation, version, items, objectMapper.writeValueAsBytes(items));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize menu for restaurant " + restaurantId, e);
+        }
+        // An empty menu is only cached for a real restaurant, so probing random ids cannot grow the map
+        if (!items.isEmpty() || restaurantRepository.existsById(restaurantId)) {
+            snapshots.put(restaurantId, snapshot);
+        }
+        return snapshot;
+    }
+
+    // "My Kitchen" dishes
+    public Snapshot getFeatured() {
+        Long restaurantId = getFeaturedRestaurantId();
+        return restaurantId != null ? getMenu(restaurantId) : EMPTY;
+    }
+
+    // Looked up once and then remembered; stays unresolved until the admin adds the first dish,
+    // which creates the restaurant
+    public Long getFeaturedRestaurantId() {
+        Long restaurantId = featuredRestaurantId;
+        if (restaurantId == null) {
+            restaurantId = restaurantRepository.findByRestaurantName(FEATURED_RESTAURANT).stream()
+                    .findFirst().map(Restaurant::getId).orElse(null);
+            featuredRestaurantId = restaurantId;
+        }
+        return restaurantId;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMenuItemChanged(MenuItemChangedEvent event) {
+        invalidations.incrementAndGet();
+        if (event.getRestaurantId() == null) {
+            // Owner unknown (e.g. the item was already gone); drop everything to be safe
+            generations.replaceAll((id, generation) -> generation + 1);
+            snapshots.clear();
+            return;
+        }
+        generations.merge(event.getRestaurantId(), 1L, Long::sum);
+        snapshots.remove(event.getRestaurantId());
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        long bytes = 0;
+        for (Snapshot snapshot : snapshots.values()) {
+            bytes += snapshot.json.length;
+        }
+        stats.put("restaurants", snapshots.size());
+        stats.put("jsonBytes", bytes);
+        stats.put("hits", hits.get());
+        stats.put("misses", misses.get());
+        stats.put("invalidations", invalidations.get());
+        stats.put("featuredRestaurantId", featuredRestaurantId);
+        return stats;
+    }
+}
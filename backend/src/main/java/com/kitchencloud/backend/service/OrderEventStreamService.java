@@ -0,0 +1,294 @@
+package com.kitchencloud.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kitchencloud.backend.event.OrderEvent;
+import com.kitchencloud.backend.model.OrderStatus;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Server-sent events for order changes, replacing dashboard polling. Emitters are async servlet
+ * responses, so no request thread is held while a client is connected. Each committed event is
+ * serialized once and offered to every subscriber of its topics; offering never blocks. Every
+ * subscriber has its own bounded queue drained by a small writer pool, one drain at a time per
+ * subscriber, so a slow client only delays itself. A client whose queue overflows, or whose write
+ * has been stuck for stall-seconds, is disconnected and can reconnect.
+ *
+ * Topics: restaurant:{id}, user:{id}, delivery (the pool of ready, unassigned orders),
+ * delivery:{id} (a rider's own orders) and admin.
+ */
+@Service
+public class OrderEventStreamService {
+
+    public static final String DELIVERY_POOL = "delivery";
+    public static final String ADMIN = "admin";
+
+    private static final int MAX_SENDS_PER_DRAIN = 64;
+
+    private static class Subscriber {
+        private final SseEmitter emitter;
+        private final String[] topics;
+        private final BlockingQueue<Set<ResponseBodyEmitter.DataWithMediaType>> pending;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile long sendStartedAt; // 0 while no write is in progress
+        private volatile boolean closed;
+
+        private Subscriber(SseEmitter emitter, String[] topics, int queueSize) {
+            this.emitter = emitter;
+            this.topics = topics;
+            this.pending = new ArrayBlockingQueue<>(queueSize);
+        }
+    }
+
+    @Value("${orders.stream.timeout-minutes:30}")
+    private long timeoutMinutes;
+
+    @Value("${orders.stream.queue-size:256}")
+    private int queueSize;
+
+    @Value("${orders.stream.writer-threads:8}")
+    private int writerThreads;
+
+    @Value("${orders.stream.stall-seconds:15}")
+    private long stallSeconds;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final Map<String, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicLong droppedSlow = new AtomicLong();
+    private ThreadPoolExecutor writers;
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger count = new AtomicInteger();
+        writers = new ThreadPoolExecutor(writerThreads, writerThreads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), r -> {
+                    Thread thread = new Thread(r, "order-events-writer-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    public static String restaurantTopic(Long restaurantId) {
+        return "restaurant:" + restaurantId;
+    }
+
+    public static String userTopic(Long userId) {
+        return "user:" + userId;
+    }
+
+    public static String deliveryTopic(Long deliveryBoyId) {
+        return "delivery:" + deliveryBoyId;
+    }
+
+    public SseEmitter subscribe(String... topics) {
+        SseEmitter emitter = new SseEmitter(timeoutMinutes * 60_000);
+        Subscriber subscriber = new Subscriber(emitter, topics, queueSize);
+        for (String topic : topics) {
+            subscribers.computeIfAbsent(topic, t -> new CopyOnWriteArraySet<>()).add(subscriber);
+        }
+        Runnable remove = () -> unsubscribe(subscriber);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(e -> remove.run());
+        offer(subscriber, SseEmitter.event().comment("connected").build());
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderEvent(OrderEvent event) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            System.err.println("Could not serialize order event: " + e.getMessage());
+            return;
+        }
+        // Built once and shared by every subscriber
+        Set<ResponseBodyEmitter.DataWithMediaType> payload =
+                SseEmitter.event().id(String.valueOf(event.getOrderId())).name(event.getType()).data(json).build();
+        Set<Subscriber> targets = new LinkedHashSet<>();
+        for (String topic : topicsFor(event)) {
+            Set<Subscriber> set = subscribers.get(topic);
+            if (set != null) {
+                targets.addAll(set);
+            }
+        }
+        for (Subscriber subscriber : targets) {
+            offer(subscriber, payload);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        Set<Subscriber> all = allSubscribers();
+        long queued = 0;
+        for (Subscriber subscriber : all) {
+            queued += subscriber.pending.size();
+        }
+        stats.put("connections", all.size());
+        stats.put("topics", subscribers.values().stream().filter(s -> !s.isEmpty()).count());
+        stats.put("queuedEvents", queued);
+        stats.put("droppedSlowClients", droppedSlow.get());
+        stats.put("activeWriters", writers.getActiveCount());
+        return stats;
+    }
+
+    // Keeps proxies from closing idle streams, flushes out dead connections and drops stalled ones.
+    @Scheduled(fixedRate = 25000)
+    public void heartbeat() {
+        long stalledBefore = System.currentTimeMillis() - stallSeconds * 1000;
+        Set<ResponseBodyEmitter.DataWithMediaType> ping = SseEmitter.event().comment("ping").build();
+        for (Subscriber subscriber : allSubscribers()) {
+            long started = subscriber.sendStartedAt;
+            if (started != 0 && started < stalledBefore) {
+                drop(subscriber, "write stalled");
+            } else {
+                offer(subscriber, ping);
+            }
+        }
+        subscribers.values().removeIf(Set::isEmpty);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writers.shutdownNow();
+        for (Subscriber subscriber : allSubscribers()) {
+            subscriber.closed = true;
+            subscriber.emitter.complete();
+        }
+    }
+
+    private Set<String> topicsFor(OrderEvent event) {
+        Set<String> topics = new LinkedHashSet<>();
+        topics.add(ADMIN);
+        if (event.getRestaurantId() != null) {
+            topics.add(restaurantTopic(event.getRestaurantId()));
+        }
+        if (event.getUserId() != null) {
+            topics.add(userTopic(event.getUserId()));
+        }
+        if (event.getDeliveryBoyId() != null) {
+            topics.add(deliveryTopic(event.getDeliveryBoyId()));
+        }
+        // Riders only care about orders entering or leaving the ready pool
+        if (event.getStatus() == OrderStatus.READY || event.getPreviousStatus() == OrderStatus.READY) {
+            topics.add(DELIVERY_POOL);
+        }
+        return topics;
+    }
+
+    private Set<Subscriber> allSubscribers() {
+        Set<Subscriber> all = new LinkedHashSet<>();
+        subscribers.values().forEach(all::addAll);
+        return all;
+    }
+
+    // Never blocks: a full queue means the client cannot keep up, so it is disconnected
+    private void offer(Subscriber subscriber, Set<ResponseBodyEmitter.DataWithMediaType> payload) {
+        if (subscriber.closed) {
+            return;
+        }
+        if (!subscriber.pending.offer(payload)) {
+            drop(subscriber, "queue full");
+            return;
+        }
+        scheduleDrain(subscriber);
+    }
+
+    private void scheduleDrain(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            try {
+                writers.execute(() -> drain(subscriber));
+            } catch (RejectedExecutionException e) {
+                subscriber.draining.set(false); // Shutting down
+            }
+        }
+    }
+
+    // Runs on a writer thread; at most one drain per subscriber at a time, so its events stay in order
+    private void drain(Subscriber subscriber) {
+        try {
+            Set<ResponseBodyEmitter.DataWithMediaType> next;
+            int sent = 0;
+            while (!subscriber.closed && sent < MAX_SENDS_PER_DRAIN && (next = subscriber.pending.poll()) != null) {
+                subscriber.sendStartedAt = System.currentTimeMillis();
+                try {
+                    subscriber.emitter.send(next);
+                } catch (Exception e) {
+                    // Client went away
+                    close(subscriber, e);
+                    return;
+                } finally {
+                    subscriber.sendStartedAt = 0;
+                }
+                sent++;
+            }
+        } finally {
+            subscriber.draining.set(false);
+        }
+        // Yield to other subscribers after a long run, and pick up anything offered meanwhile
+        if (!subscriber.closed && !subscriber.pending.isEmpty()) {
+            scheduleDrain(subscriber);
+        }
+    }
+
+    private void drop(Subscriber subscriber, String reason) {
+        if (!subscriber.closed) {
+            droppedSlow.incrementAndGet();
+            System.err.println("Disconnecting slow order stream client (" + reason + ") on "
+                    + String.join(",", subscriber.topics));
+            close(subscriber, null);
+        }
+    }
+
+    private void close(Subscriber subscriber, Exception error) {
+        subscriber.closed = true;
+        unsubscribe(subscriber);
+        subscriber.pending.clear();
+        try {
+            if (error != null) {
+                subscriber.emitter.completeWithError(error);
+            } else {
+                subscriber.emitter.complete();
+            }
+        } catch (Exception ignored) {
+            // Already completed
+        }
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        subscriber.closed = true;
+        for (String topic : subscriber.topics) {
+            Set<Subscriber> set = subscribers.get(topic);
+            if (set != null) {
+                set.remove(subscriber);
+            }
+        }
+    }
+}
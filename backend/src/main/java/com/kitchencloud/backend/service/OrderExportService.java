@@ -0,0 +1,177 @@
+package com.kitchencloud.backend.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kitchencloud.backend.model.OrderStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streams orders as CSV or NDJSON straight from a forward-only MySQL result set to the response.
+ * Rows are written as they arrive and nothing is collected, so memory stays flat no matter how
+ * many orders match.
+ */
+@Service
+public class OrderExportService {
+
+    public static final String CSV = "csv";
+    public static final String NDJSON = "ndjson";
+
+    private static final String[] COLUMNS = { "id", "createdAt", "status", "restaurantId", "restaurantName", "userId",
+            "customerName", "deliveryBoyId", "totalAmount", "donationAmount", "ngoId", "paymentId", "deliveryAddress",
+            "deliveryPhone", "items" };
+
+    // The items column is one GROUP_CONCAT per order; MySQL's 1024-byte default would cut large orders short
+    private static final int GROUP_CONCAT_MAX_LEN = 16 * 1024 * 1024;
+
+    @Value("${orders.export.fetch-size:0}")
+    private int fetchSize;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public void export(String format, LocalDateTime from, LocalDateTime to, Long restaurantId, OutputStream out)
+            throws IOException {
+        StringBuilder sql = new StringBuilder("SELECT o.id, o.created_at, o.status_code, o.restaurant_id, r.restaurant_name, "
+                + "o.user_id, u.full_name, o.delivery_boy_id, o.total_amount, o.donation_amount, o.ngo_id, o.payment_id, "
+                + "o.delivery_address, o.delivery_phone, "
+                + "(SELECT GROUP_CONCAT(CONCAT(oi.quantity, 'x ', COALESCE(oi.item_name, '')) ORDER BY oi.id SEPARATOR '; ') "
+                + "FROM order_items oi WHERE oi.order_id = o.id) "
+                + "FROM orders o LEFT JOIN restaurants r ON r.id = o.restaurant_id LEFT JOIN users u ON u.id = o.user_id WHERE 1 = 1");
+        List<Object> args = new ArrayList<>();
+        if (from != null) {
+            sql.append(" AND o.created_at >= ?");
+            args.add(Timestamp.valueOf(from));
+        }
+        if (to != null) {
+            sql.append(" AND o.created_at < ?");
+            args.add(Timestamp.valueOf(to));
+        }
+        if (restaurantId != null) {
+            sql.append(" AND o.restaurant_id = ?");
+            args.add(restaurantId);
+        }
+        sql.append(" ORDER BY o.created_at, o.id");
+
+        if (NDJSON.equalsIgnoreCase(format)) {
+            writeNdjson(sql.toString(), args.toArray(), out);
+        } else {
+            writeCsv(sql.toString(), args.toArray(), out);
+        }
+    }
+
+    // Runs the export query on one connection with group_concat_max_len raised for that session only,
+    // and restores the default before the connection goes back to the pool.
+    private void stream(String sql, Object[] args, RowCallbackHandler handler) {
+        new JdbcTemplate(dataSource).execute((ConnectionCallback<Void>) con -> {
+            try (Statement session = con.createStatement()) {
+                session.execute("SET SESSION group_concat_max_len = " + GROUP_CONCAT_MAX_LEN);
+            }
+            try (PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                // Integer.MIN_VALUE makes Connector/J stream rows one at a time; a positive size needs useCursorFetch=true
+                ps.setFetchSize(fetchSize > 0 ? fetchSize : Integer.MIN_VALUE);
+                for (int i = 0; i < args.length; i++) {
+                    ps.setObject(i + 1, args[i]);
+                }
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        handler.processRow(rs);
+                    }
+                }
+            } finally {
+                try (Statement session = con.createStatement()) {
+                    session.execute("SET SESSION group_concat_max_len = DEFAULT");
+                }
+            }
+            return null;
+        });
+    }
+
+    private void writeCsv(String sql, Object[] args, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        writer.write(String.join(",", COLUMNS));
+        writer.write('\n');
+        stream(sql, args, rs -> {
+            try {
+                Object[] row = readRow(rs);
+                for (int i = 0; i < row.length; i++) {
+                    if (i > 0) {
+                        writer.write(',');
+                    }
+                    writer.write(CsvUtils.escape(row[i]));
+                }
+                writer.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        writer.flush();
+    }
+
+    private void writeNdjson(String sql, Object[] args, OutputStream out) throws IOException {
+        JsonGenerator json = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+        json.setRootValueSeparator(null);
+        stream(sql, args, rs -> {
+            try {
+                Object[] row = readRow(rs);
+                json.writeStartObject();
+                for (int i = 0; i < COLUMNS.length; i++) {
+                    json.writeObjectField(COLUMNS[i], row[i]);
+                }
+                json.writeEndObject();
+                json.writeRaw('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        json.flush();
+    }
+
+    private Object[] readRow(ResultSet rs) throws SQLException {
+        Timestamp createdAt = rs.getTimestamp(2);
+        int statusCode = rs.getInt(3);
+        String status = rs.wasNull() ? null : OrderStatus.fromCode(statusCode).getValue();
+        return new Object[] {
+                rs.getLong(1),
+                createdAt != null ? createdAt.toLocalDateTime().toString() : null,
+                status,
+                rs.getObject(4),
+                rs.getString(5),
+                rs.getObject(6),
+                rs.getString(7),
+                rs.getObject(8),
+                rs.getObject(9),
+                rs.getObject(10),
+                rs.getString(11),
+                rs.getString(12),
+                rs.getString(13),
+                rs.getString(14),
+                rs.getString(15)
+        };
+    }
+}
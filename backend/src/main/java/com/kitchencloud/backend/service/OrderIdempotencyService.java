@@ -0,0 +1,143 @@
+package com.kitchencloud.backend.service;
+
+import com.kitchencloud.backend.dto.OrderRequestDTO;
+import com.kitchencloud.backend.model.Order;
+import com.kitchencloud.backend.repository.OrderRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Makes order placement idempotent on the payment id. One payment covers the whole cart and the cart
+ * is split into one order per restaurant, so the key is (paymentId, restaurantId), scoped to the
+ * user so a replayed key never hands out someone else's order. Recent keys live
+ * in an in-memory TTL cache that holds only the order id, so a retried request re-reads the original
+ * order by primary key instead of placing it again; the unique index on orders (payment_id,
+ * restaurant_id) catches anything the cache no longer remembers.
+ */
+@Service
+public class OrderIdempotencyService {
+
+    private static class Entry {
+        private final CompletableFuture<Long> orderId = new CompletableFuture<>();
+        private volatile long expiresAt = Long.MAX_VALUE;
+
+        private boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+
+    @Value("${orders.idempotency.ttl-minutes:30}")
+    private long ttlMinutes;
+
+    @Autowired
+    private OrderPlacementService orderPlacementService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    public Order placeOrder(OrderRequestDTO request) {
+        String key = keyOf(request);
+        if (key == null) {
+            return orderPlacementService.placeOrder(request);
+        }
+
+        Entry fresh = new Entry();
+        Entry current = entries.compute(key, (k, existing) ->
+                existing == null || existing.isExpired(System.currentTimeMillis()) ? fresh : existing);
+        if (current != fresh) {
+            // Either already placed or in flight on another thread: share its outcome.
+            return load(await(current));
+        }
+
+        try {
+            Order order;
+            try {
+                order = orderPlacementService.placeOrder(request);
+            } catch (DataIntegrityViolationException e) {
+                // Lost the race on the unique payment id (other node, or cache entry expired).
+                order = orderRepository.findByPaymentIdAndRestaurantId(request.getPaymentId().trim(),
+                        request.getRestaurantId()).orElseThrow(() -> e);
+                if (order.getUser() == null || !order.getUser().getId().equals(request.getUserId())) {
+                    throw new OrderRejectedException("Payment id has already been used");
+                }
+            }
+            fresh.expiresAt = System.currentTimeMillis() + ttlMinutes * 60_000;
+            fresh.orderId.complete(order.getId());
+            return order;
+        } catch (RuntimeException e) {
+            // Failed attempts are not remembered, so the client may retry with the same key.
+            entries.remove(key, fresh);
+            fresh.orderId.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    // Order for a key that has already completed, re-read by id, or null when the key is not cached.
+    public Order getPlaced(OrderRequestDTO request) {
+        String key = keyOf(request);
+        if (key == null) {
+            return null;
+        }
+        Entry entry = entries.get(key);
+        if (entry == null || entry.isExpired(System.currentTimeMillis()) || !entry.orderId.isDone()
+                || entry.orderId.isCompletedExceptionally()) {
+            return null;
+        }
+        return orderRepository.findById(entry.orderId.join()).orElse(null);
+    }
+
+    // Records an order placed outside placeOrder (e.g. by the async intake after its batch commits).
+    public void remember(Order order) {
+        String key = key(order.getPaymentId(), order.getRestaurant() != null ? order.getRestaurant().getId() : null,
+                order.getUser() != null ? order.getUser().getId() : null);
+        if (key == null) {
+            return;
+        }
+        Entry entry = new Entry();
+        entry.expiresAt = System.currentTimeMillis() + ttlMinutes * 60_000;
+        entry.orderId.complete(order.getId());
+        entries.put(key, entry);
+    }
+
+    @Scheduled(fixedDelay = 60000)
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> entry.isExpired(now));
+    }
+
+    private Long await(Entry entry) {
+        try {
+            return entry.orderId.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private Order load(Long orderId) {
+        return orderRepository.findById(orderId).orElseThrow(() -> new RuntimeException("Order not found"));
+    }
+
+    public String keyOf(OrderRequestDTO request) {
+        return key(request.getPaymentId(), request.getRestaurantId(), request.getUserId());
+    }
+
+    private String key(String paymentId, Long restaurantId, Long userId) {
+        if (paymentId == null || paymentId.trim().isEmpty() || restaurantId == null || userId == null) {
+            return null;
+        }
+        return userId + ":" + paymentId.trim() + ":" + restaurantId;
+    }
+}
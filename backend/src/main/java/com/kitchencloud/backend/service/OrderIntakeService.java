@@ -0,0 +1,312 @@
+package com.kitchencloud.backend.service;
+
+import com.kitchencloud.backend.dto.OrderRequestDTO;
+import com.kitchencloud.backend.model.Order;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.Data;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Optional asynchronous intake for /api/orders/place. Requests are validated, queued in a bounded
+ * buffer and written by a small worker pool that commits up to batch-size orders per transaction.
+ */
+@Service
+public class OrderIntakeService {
+
+    public enum IntakeStatus { QUEUED, PLACED, REJECTED, FAILED }
+
+    @Data
+    public static class IntakeResult {
+        private final String token;
+        private volatile IntakeStatus status = IntakeStatus.QUEUED;
+        private volatile Long orderId;
+        private volatile String message;
+        private volatile Instant completedAt;
+    }
+
+    private static class PendingOrder {
+        private final String token;
+        private final String idempotencyKey;
+        private final OrderRequestDTO request;
+
+        private PendingOrder(String token, String idempotencyKey, OrderRequestDTO request) {
+            this.token = token;
+            this.idempotencyKey = idempotencyKey;
+            this.request = request;
+        }
+    }
+
+    @Value("${orders.intake.async-enabled:false}")
+    private boolean asyncEnabled;
+
+    @Value("${orders.intake.capacity:10000}")
+    private int capacity;
+
+    @Value("${orders.intake.workers:4}")
+    private int workers;
+
+    @Value("${orders.intake.batch-size:50}")
+    private int batchSize;
+
+    @Value("${orders.intake.result-ttl-minutes:15}")
+    private long resultTtlMinutes;
+
+    @Autowired
+    private OrderPlacementService orderPlacementService;
+
+    @Autowired
+    private OrderIdempotencyService orderIdempotencyService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private BlockingQueue<PendingOrder> queue;
+    private ExecutorService workerPool;
+    private TransactionTemplate batchTransaction;
+    private volatile boolean accepting;
+    private final ReentrantReadWriteLock intakeLock = new ReentrantReadWriteLock();
+
+    private final Map<String, IntakeResult> results = new ConcurrentHashMap<>();
+    private final Map<String, IntakeResult> queuedByPaymentKey = new ConcurrentHashMap<>();
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong rejectedQueueFull = new AtomicLong();
+    private final AtomicLong placed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+
+    @PostConstruct
+    public void start() {
+        if (!asyncEnabled) {
+            return;
+        }
+        queue = new ArrayBlockingQueue<>(capacity);
+        batchTransaction = new TransactionTemplate(transactionManager);
+        AtomicInteger threadCount = new AtomicInteger();
+        workerPool = Executors.newFixedThreadPool(workers,
+                r -> new Thread(r, "order-intake-" + threadCount.incrementAndGet()));
+        accepting = true;
+        for (int i = 0; i < workers; i++) {
+            workerPool.submit(this::drainLoop);
+        }
+        System.out.println("Async order intake enabled: capacity=" + capacity + ", workers=" + workers
+                + ", batchSize=" + batchSize);
+    }
+
+    public boolean isAsyncEnabled() {
+        return asyncEnabled;
+    }
+
+    /**
+     * Validates and enqueues the request. Returns the tracking result, or null when the queue is
+     * full (or shutting down) and the caller should back off.
+     */
+    public IntakeResult submit(OrderRequestDTO request) {
+        orderPlacementService.validate(request);
+        // Held across the check and the offer so shutdown cannot slip in between and leave an
+        // order in a queue no worker will ever read.
+        intakeLock.readLock().lock();
+        try {
+            if (!accepting) {
+                rejectedQueueFull.incrementAndGet();
+                return null;
+            }
+            IntakeResult result = new IntakeResult(UUID.randomUUID().toString());
+            String key = orderIdempotencyService.keyOf(request);
+            if (key != null) {
+                // A retry of a payment that is still queued gets the original token back.
+                IntakeResult queued = queuedByPaymentKey.putIfAbsent(key, result);
+                if (queued != null) {
+                    return queued;
+                }
+            }
+            results.put(result.getToken(), result);
+            if (!queue.offer(new PendingOrder(result.getToken(), key, request))) {
+                results.remove(result.getToken());
+                if (key != null) {
+                    queuedByPaymentKey.remove(key, result);
+                }
+                rejectedQueueFull.incrementAndGet();
+                return null;
+            }
+            accepted.incrementAndGet();
+            return result;
+        } finally {
+            intakeLock.readLock().unlock();
+        }
+    }
+
+    public IntakeResult getResult(String token) {
+        return results.get(token);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("asyncEnabled", asyncEnabled);
+        stats.put("accepting", accepting);
+        stats.put("queueDepth", queue != null ? queue.size() : 0);
+        stats.put("queueCapacity", asyncEnabled ? capacity : 0);
+        stats.put("accepted", accepted.get());
+        stats.put("rejectedQueueFull", rejectedQueueFull.get());
+        stats.put("placed", placed.get());
+        stats.put("rejected", rejected.get());
+        stats.put("failed", failed.get());
+        stats.put("batches", batches.get());
+        return stats;
+    }
+
+    private void drainLoop() {
+        List<PendingOrder> batch = new ArrayList<>(batchSize);
+        while (accepting || !queue.isEmpty()) {
+            try {
+                PendingOrder first = queue.poll(200, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                persistBatch(batch);
+            } catch (InterruptedException e) {
+                // Shutdown interrupts only after the drain deadline; keep the interrupt flag and stop.
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                System.err.println("Order intake worker error: " + e.getMessage());
+                e.printStackTrace();
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    // Group commit: one transaction for the whole batch. If the batch fails for anything other than
+    // a business rejection, each order is retried in its own transaction so good orders still land.
+    private void persistBatch(List<PendingOrder> batch) {
+        Map<String, Object> outcomes = new HashMap<>();
+        try {
+            batchTransaction.executeWithoutResult(status -> {
+                outcomes.clear();
+                for (PendingOrder pending : batch) {
+                    outcomes.put(pending.token, placeOne(pending));
+                }
+            });
+            batches.incrementAndGet();
+        } catch (Exception e) {
+            System.err.println("Order batch of " + batch.size() + " failed, retrying individually: " + e.getMessage());
+            outcomes.clear();
+            for (PendingOrder pending : batch) {
+                try {
+                    outcomes.put(pending.token, orderIdempotencyService.placeOrder(pending.request));
+                } catch (OrderRejectedException single) {
+                    outcomes.put(pending.token, single);
+                } catch (Exception single) {
+                    outcomes.put(pending.token, single);
+                }
+            }
+        }
+
+        for (PendingOrder pending : batch) {
+            Object outcome = outcomes.get(pending.token);
+            if (outcome instanceof Order order) {
+                orderIdempotencyService.remember(order);
+            }
+            if (pending.idempotencyKey != null) {
+                queuedByPaymentKey.remove(pending.idempotencyKey);
+            }
+            complete(pending.token, outcome);
+        }
+    }
+
+    private Object placeOne(PendingOrder pending) {
+        try {
+            return orderPlacementService.placeOrder(pending.request);
+        } catch (OrderRejectedException e) {
+            return e;
+        }
+    }
+
+    private void complete(String token, Object outcome) {
+        IntakeResult result = results.get(token);
+        if (result == null) {
+            return;
+        }
+        if (outcome instanceof Order order) {
+            result.setOrderId(order.getId());
+            result.setStatus(IntakeStatus.PLACED);
+            placed.incrementAndGet();
+        } else if (outcome instanceof OrderRejectedException e) {
+            result.setMessage(e.getMessage());
+            result.setStatus(IntakeStatus.REJECTED);
+            rejected.incrementAndGet();
+        } else {
+            String message = outcome instanceof Exception e ? e.getMessage() : "Unknown error";
+            result.setMessage("Failed to place order: " + message);
+            result.setStatus(IntakeStatus.FAILED);
+            failed.incrementAndGet();
+        }
+        result.setCompletedAt(Instant.now());
+    }
+
+    @Scheduled(fixedDelay = 60000)
+    public void evictCompletedResults() {
+        Instant cutoff = Instant.now().minusSeconds(resultTtlMinutes * 60);
+        results.values().removeIf(r -> r.getCompletedAt() != null && r.getCompletedAt().isBefore(cutoff));
+    }
+
+    // Stop taking new orders, let the workers empty the queue, then wait for them to finish.
+    @PreDestroy
+    public void shutdown() {
+        if (!asyncEnabled) {
+            return;
+        }
+        // Waits for in-flight submits; once this returns nothing else can be enqueued
+        intakeLock.writeLock().lock();
+        try {
+            accepting = false;
+        } finally {
+            intakeLock.writeLock().unlock();
+        }
+        workerPool.shutdown();
+        try {
+            if (!workerPool.awaitTermination(60, TimeUnit.SECONDS)) {
+                System.err.println("Order intake did not drain in time, " + queue.size() + " orders left in queue");
+                workerPool.shutdownNow();
+                workerPool.awaitTermination(5, TimeUnit.SECONDS);
+            }
+        } catch (InterruptedException e) {
+            workerPool.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        // Whatever the workers did not reach is failed, so its token does not stay QUEUED forever
+        List<PendingOrder> leftover = new ArrayList<>();
+        queue.drainTo(leftover);
+        for (PendingOrder pending : leftover) {
+            if (pending.idempotencyKey != null) {
+                queuedByPaymentKey.remove(pending.idempotencyKey);
+            }
+            complete(pending.token, new RuntimeException("Server shut down before the order was processed"));
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.kitchencloud.backend.service;
+
+import com.kitchencloud.backend.dto.OrderCursor;
+import com.kitchencloud.backend.dto.OrderItemView;
+import com.kitchencloud.backend.dto.OrderListView;
+import com.kitchencloud.backend.dto.OrderSummaryDTO;
+import com.kitchencloud.backend.model.OrderStatus;
+import com.kitchencloud.backend.repository.OrderItemRepository;
+import com.kitchencloud.backend.repository.OrderRepository;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keyset pagination for order lists, newest first. Every page seeks on (created_at, id) through a
+ * composite index, so page 500 costs the same as page 1. The next cursor travels in the
+ * X-Next-Cursor header so the body stays the plain array the dashboards already read.
+ * Pages are built from column projections plus one batched item query, never from entity graphs.
+ */
+@Service
+public class OrderListingService {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    @Data
+    @AllArgsConstructor
+    public static class OrderPage {
+        private List<OrderSummaryDTO> orders;
+        private String nextCursor; // null on the last page
+    }
+
+    @Value("${orders.page.default-size:100}")
+    private int defaultSize;
+
+    @Value("${orders.page.max-size:500}")
+    private int maxSize;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    public OrderPage forUser(Long userId, String cursor, Integer limit) {
+        OrderCursor after = OrderCursor.decode(cursor);
+        int size = pageSize(limit);
+        return toPage(orderRepository.findUserPage(userId, after.getCreatedAt(), after.getId(), fetch(size)), size);
+    }
+
+    public OrderPage forRestaurant(Long restaurantId, String cursor, Integer limit) {
+        OrderCursor after = OrderCursor.decode(cursor);
+        int size = pageSize(limit);
+        return toPage(orderRepository.findRestaurantPage(restaurantId, after.getCreatedAt(), after.getId(), fetch(size)), size);
+    }
+
+    public OrderPage forDeliveryBoy(Long deliveryBoyId, String cursor, Integer limit) {
+        OrderCursor after = OrderCursor.decode(cursor);
+        int size = pageSize(limit);
+        return toPage(orderRepository.findDeliveryBoyPage(deliveryBoyId, after.getCreatedAt(), after.getId(), fetch(size)), size);
+    }
+
+    public OrderPage all(String cursor, Integer limit) {
+        OrderCursor after = OrderCursor.decode(cursor);
+        int size = pageSize(limit);
+        return toPage(orderRepository.findPage(after.getCreatedAt(), after.getId(), fetch(size)), size);
+    }
+
+    public List<OrderSummaryDTO> unassigned(OrderStatus status) {
+        return withItems(orderRepository.findUnassignedViews(status));
+    }
+
+    public static ResponseEntity<List<OrderSummaryDTO>> toResponse(OrderPage page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getOrders());
+    }
+
+    private int pageSize(Integer limit) {
+        if (limit == null || limit <= 0) {
+            return defaultSize;
+        }
+        return Math.min(limit, maxSize);
+    }
+
+    // One extra row tells us whether another page exists without a COUNT query
+    private Pageable fetch(int size) {
+        return PageRequest.of(0, size + 1);
+    }
+
+    private OrderPage toPage(List<OrderListView> rows, int size) {
+        if (rows.size() <= size) {
+            return new OrderPage(withItems(rows), null);
+        }
+        List<OrderListView> page = rows.subList(0, size);
+        OrderListView last = page.get(size - 1);
+        return new OrderPage(withItems(page), new OrderCursor(last.getCreatedAt(), last.getId()).encode());
+    }
+
+    private List<OrderSummaryDTO> withItems(List<OrderListView> rows) {
+        List<OrderSummaryDTO> orders = new ArrayList<>(rows.size());
+        Map<Long, OrderSummaryDTO> byId = new HashMap<>();
+        for (OrderListView row : rows) {
+            OrderSummaryDTO order = OrderSummaryDTO.from(row);
+            orders.add(order);
+            byId.put(order.getId(), order);
+        }
+        if (!byId.isEmpty()) {
+            for (OrderItemView item : orderItemRepository.findViewsByOrderIds(byId.keySet())) {
+                byId.get(item.getOrderId()).getItems().add(OrderSummaryDTO.Item.from(item));
+            }
+        }
+        return orders;
+    }
+}
@@ -0,0 +1,226 @@
+package com.kitchencloud.backend.service;
+
+import com.kitchencloud.backend.dto.OrderRequestDTO;
+import com.kitchencloud.backend.event.OrderEvent;
+import com.kitchencloud.backend.model.MenuItem;
+import com.kitchencloud.backend.model.Order;
+import com.kitchencloud.backend.model.OrderStatus;
+import com.kitchencloud.backend.model.OrderItem;
+import com.kitchencloud.backend.model.Restaurant;
+import com.kitchencloud.backend.model.User;
+import com.kitchencloud.backend.repository.CouponRedemptionRepository;
+import com.kitchencloud.backend.repository.MenuItemRepository;
+import com.kitchencloud.backend.repository.OrderRepository;
+import com.kitchencloud.backend.repository.RestaurantRepository;
+import com.kitchencloud.backend.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Service
+public class OrderPlacementService {
+
+    private static final String MY_KITCHEN = "My Kitchen";
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @Autowired
+    private CouponRedemptionRepository couponRedemptionRepository;
+
+    @Autowired
+    private CouponRedemptionFilter couponRedemptionFilter;
+
+    @Autowired
+    private LoyaltyService loyaltyService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private Geocoder geocoder;
+
+    // 0 disables the check; orders without a placeable address or restaurant are never rejected
+    @Value("${geo.delivery.max-radius-km:0}")
+    private double maxDeliveryRadiusKm;
+
+    // Every rejection happens before the order row is written, and the only conditional write that
+    // can precede one (a points debit) is undone first, so a rejected order leaves nothing behind.
+    // That is also why a rejection does not roll back a surrounding transaction: the async
+    // intake commits many orders together and one bad request must not sink the whole batch.
+    @Transactional(noRollbackFor = OrderRejectedException.class)
+    public Order placeOrder(OrderRequestDTO request) {
+        validate(request);
+
+        User user = userRepository.findById(request.getUserId())
+                .orElseThrow(() -> new OrderRejectedException("User not found"));
+        Restaurant restaurant = restaurantRepository.findById(request.getRestaurantId())
+                .orElseThrow(() -> new OrderRejectedException("Restaurant not found"));
+
+        Map<Long, MenuItem> menuItems = loadMenuItems(request.getItems(), restaurant.getId());
+
+        double[] location = deliveryLocation(request);
+        if (maxDeliveryRadiusKm > 0 && location != null && restaurant.getLatitude() != null
+                && restaurant.getLongitude() != null
+                && GeoIndexService.distanceKm(restaurant.getLatitude(), restaurant.getLongitude(), location[0],
+                        location[1]) > maxDeliveryRadiusKm) {
+            throw new OrderRejectedException("Delivery address is outside this restaurant's delivery area");
+        }
+
+        String couponCode = normalizeCoupon(request.getCouponCode());
+        // The Bloom filter answers "never used" without a query for the common case.
+        if (couponCode != null && couponRedemptionFilter.mightHaveRedeemed(couponCode, user.getId())
+                && couponRedemptionRepository.existsByUserIdAndCode(user.getId(), couponCode)) {
+            throw new OrderRejectedException("Coupon '" + couponCode + "' has already been used!");
+        }
+
+        int redeemedPoints = request.getRedeemedPoints() != null ? request.getRedeemedPoints() : 0;
+
+        // Authoritative checks, each a single conditional statement. Nothing else has been written
+        // when they fail, and a debit undone by a lost coupon race nets out to zero.
+        if (redeemedPoints > 0 && !loyaltyService.debit(user.getId(), redeemedPoints)) {
+            throw new OrderRejectedException("Insufficient loyalty points");
+        }
+        if (couponCode != null) {
+            if (couponRedemptionRepository.insertIfAbsent(user.getId(), couponCode) == 0) {
+                if (redeemedPoints > 0) {
+                    loyaltyService.refund(user.getId(), redeemedPoints);
+                }
+                throw new OrderRejectedException("Coupon '" + couponCode + "' has already been used!");
+            }
+            couponRedemptionFilter.record(couponCode, user.getId());
+        }
+
+        Order order = new Order();
+        order.setUser(user);
+        order.setRestaurant(restaurant);
+        order.setDeliveryAddress(request.getUserAddress());
+        order.setDeliveryPhone(request.getUserPhone());
+        if (location != null) {
+            order.setDeliveryLatitude(location[0]);
+            order.setDeliveryLongitude(location[1]);
+        }
+        order.setTotalAmount(request.getTotal());
+        order.setStatus(OrderStatus.PENDING);
+        order.setDonationAmount(request.getDonationAmount());
+        order.setNgoId(request.getNgoId());
+        // Blank ids are stored as null so they never collide on the unique (payment_id, restaurant_id) index
+        String paymentId = request.getPaymentId();
+        order.setPaymentId(paymentId == null || paymentId.trim().isEmpty() ? null : paymentId.trim());
+
+        List<OrderItem> orderItems = new ArrayList<>();
+        for (OrderRequestDTO.OrderItemRequest itemRequest : request.getItems()) {
+            MenuItem menuItem = menuItems.get(itemRequest.getMenuItemId());
+            OrderItem orderItem = new OrderItem();
+            orderItem.setOrder(order);
+            orderItem.setMenuItem(menuItem);
+            orderItem.setQuantity(itemRequest.getQuantity());
+            orderItem.setPrice(menuItem.getPrice());
+            orderItem.setItemName(menuItem.getName());
+            orderItems.add(orderItem);
+        }
+        order.setItems(orderItems);
+
+        orderRepository.save(order);
+
+        // The User row itself is never rewritten; balances move through the loyalty ledger.
+        if (redeemedPoints > 0) {
+            loyaltyService.recordRedemption(user.getId(), order.getId(), redeemedPoints);
+        }
+        if (MY_KITCHEN.equalsIgnoreCase(restaurant.getRestaurantName()) && order.getTotalAmount() != null) {
+            int pointsEarned = (int) (order.getTotalAmount() / 10); // 10% of order value
+            if (pointsEarned > 0) {
+                loyaltyService.award(user.getId(), order.getId(), pointsEarned);
+            }
+        }
+
+        eventPublisher.publishEvent(OrderEvent.created(order));
+
+        return order;
+    }
+
+    // Checks that need no database access; shared with the async intake so it can reject early.
+    public void validate(OrderRequestDTO request) {
+        if (request.getUserId() == null) {
+            throw new OrderRejectedException("User not found");
+        }
+        if (request.getRestaurantId() == null) {
+            throw new OrderRejectedException("Restaurant not found");
+        }
+        if (request.getItems() == null || request.getItems().isEmpty()) {
+            throw new OrderRejectedException("Order must contain at least one item");
+        }
+        for (OrderRequestDTO.OrderItemRequest itemRequest : request.getItems()) {
+            if (itemRequest.getMenuItemId() == null) {
+                throw new OrderRejectedException("Menu Item not found");
+            }
+            if (itemRequest.getQuantity() == null || itemRequest.getQuantity() <= 0) {
+                throw new OrderRejectedException("Invalid quantity for menu item " + itemRequest.getMenuItemId());
+            }
+        }
+        if (request.getRedeemedPoints() != null && request.getRedeemedPoints() < 0) {
+            throw new OrderRejectedException("Invalid loyalty points");
+        }
+        String couponCode = normalizeCoupon(request.getCouponCode());
+        if (couponCode != null && couponCode.length() > CouponRedemptionFilter.MAX_CODE_LENGTH) {
+            throw new OrderRejectedException("Invalid coupon code");
+        }
+    }
+
+    // Coordinates sent with the order win; otherwise the address is geocoded locally (null if unknown)
+    private double[] deliveryLocation(OrderRequestDTO request) {
+        if (request.getDeliveryLatitude() != null && request.getDeliveryLongitude() != null) {
+            return new double[] { request.getDeliveryLatitude(), request.getDeliveryLongitude() };
+        }
+        return geocoder.geocode(request.getUserAddress());
+    }
+
+    private Map<Long, MenuItem> loadMenuItems(List<OrderRequestDTO.OrderItemRequest> itemRequests, Long restaurantId) {
+        Set<Long> ids = new LinkedHashSet<>();
+        for (OrderRequestDTO.OrderItemRequest itemRequest : itemRequests) {
+            ids.add(itemRequest.getMenuItemId());
+        }
+
+        Map<Long, MenuItem> menuItems = new HashMap<>();
+        for (MenuItem menuItem : menuItemRepository.findAllById(ids)) {
+            menuItems.put(menuItem.getId(), menuItem);
+        }
+
+        for (Long id : ids) {
+            MenuItem menuItem = menuItems.get(id);
+            if (menuItem == null || menuItem.isDeleted()) {
+                throw new OrderRejectedException("Menu Item not found: " + id);
+            }
+            // getId() on the lazy restaurant proxy does not initialize it
+            if (menuItem.getRestaurant() == null || !restaurantId.equals(menuItem.getRestaurant().getId())) {
+                throw new OrderRejectedException("Menu Item " + id + " does not belong to this restaurant");
+            }
+        }
+        return menuItems;
+    }
+
+    private String normalizeCoupon(String couponCode) {
+        if (couponCode == null || couponCode.trim().isEmpty()) {
+            return null;
+        }
+        return couponCode.trim().toUpperCase();
+    }
+}
@@ -0,0 +1,11 @@
+package com.kitchencloud.backend.service;
+
+// Thrown when an order request fails a business rule; the message is shown to the client as is.
+public class OrderRejectedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public OrderRejectedException(String message) {
+        super(message);
+    }
+}
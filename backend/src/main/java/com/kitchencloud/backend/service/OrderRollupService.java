@@ -0,0 +1,179 @@
+package com.kitchencloud.backend.service;
+
+import com.kitchencloud.backend.dto.RollupPointDTO;
+import com.kitchencloud.backend.event.OrderEvent;
+import com.kitchencloud.backend.model.OrderStatus;
+import com.kitchencloud.backend.repository.OrderRollupRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Maintains order_rollup_hourly and order_rollup_daily. Every committed order event becomes a
+ * few single-row upserts, so charts over any range read one row per bucket (per restaurant and
+ * status) instead of scanning orders. Rebuilds recompute whole days from orders; the nightly one
+ * heals anything the incremental path missed.
+ */
+@Service
+public class OrderRollupService {
+
+    private static final String UPSERT = " (bucket_start, restaurant_id, status_code, order_count, revenue, donation_amount) "
+            + "VALUES (?, ?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE order_count = order_count + VALUES(order_count), "
+            + "revenue = revenue + VALUES(revenue), donation_amount = donation_amount + VALUES(donation_amount)";
+
+    private static final String REBUILD_SELECT = ", restaurant_id, status_code, COUNT(*), COALESCE(SUM(total_amount), 0), "
+            + "COALESCE(SUM(donation_amount), 0) FROM orders WHERE created_at >= ? AND created_at < ? "
+            + "AND restaurant_id IS NOT NULL AND status_code IS NOT NULL GROUP BY 1, 2, 3";
+
+    private static final long MAX_HOURLY_RANGE_DAYS = 93;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private OrderRollupRepository orderRollupRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Runs before AdminStatsService loads, since its weekly figures come from the hourly rollup
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(0)
+    public void backfillIfEmpty() {
+        Integer rollups = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM (SELECT 1 FROM order_rollup_daily LIMIT 1) r", Integer.class);
+        if (rollups != null && rollups == 0) {
+            backfill(null, null);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onOrderEvent(OrderEvent event) {
+        if (event.getRestaurantId() == null) {
+            return;
+        }
+        LocalDateTime createdAt = event.getCreatedAt() != null ? event.getCreatedAt() : event.getOccurredAt();
+        double revenue = event.getTotalAmount() != null ? event.getTotalAmount() : 0;
+        double donation = event.getDonationAmount() != null ? event.getDonationAmount() : 0;
+
+        if (OrderEvent.CREATED.equals(event.getType())) {
+            add(createdAt, event.getRestaurantId(), event.getStatus(), 1, revenue, donation);
+        } else if (event.getPreviousStatus() != null && event.getStatus() != event.getPreviousStatus()) {
+            add(createdAt, event.getRestaurantId(), event.getPreviousStatus(), -1, -revenue, -donation);
+            add(createdAt, event.getRestaurantId(), event.getStatus(), 1, revenue, donation);
+        }
+    }
+
+    /**
+     * Points for [from, to) at "hour" or "day" granularity, optionally per restaurant and grouped
+     * by "status" or "cuisine".
+     */
+    public List<RollupPointDTO> getSeries(String granularity, LocalDateTime from, LocalDateTime to, Long restaurantId,
+            String groupBy) {
+        if (!from.isBefore(to)) {
+            throw new RuntimeException("'from' must be before 'to'");
+        }
+        boolean hourly = "hour".equalsIgnoreCase(granularity);
+        if (hourly && ChronoUnit.DAYS.between(from, to) > MAX_HOURLY_RANGE_DAYS) {
+            throw new RuntimeException("Hourly series are limited to " + MAX_HOURLY_RANGE_DAYS + " days; use granularity=day");
+        }
+        String group = groupBy == null ? "" : groupBy.toLowerCase();
+        List<Object[]> rows;
+        if ("status".equals(group)) {
+            rows = hourly ? orderRollupRepository.sumHourlyByStatus(from, to, restaurantId)
+                    : orderRollupRepository.sumDailyByStatus(from, to, restaurantId);
+        } else if ("cuisine".equals(group)) {
+            rows = hourly ? orderRollupRepository.sumHourlyByCuisine(from, to, restaurantId)
+                    : orderRollupRepository.sumDailyByCuisine(from, to, restaurantId);
+        } else {
+            rows = hourly ? orderRollupRepository.sumHourly(from, to, restaurantId)
+                    : orderRollupRepository.sumDaily(from, to, restaurantId);
+        }
+
+        List<RollupPointDTO> points = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            String key = row[1] instanceof OrderStatus status ? status.getValue()
+                    : (row[1] == null || "".equals(row[1]) ? null : row[1].toString());
+            points.add(new RollupPointDTO((LocalDateTime) row[0], key, ((Number) row[2]).longValue(),
+                    row[3] != null ? ((Number) row[3]).doubleValue() : 0.0,
+                    row[4] != null ? ((Number) row[4]).doubleValue() : 0.0));
+        }
+        return points;
+    }
+
+    /**
+     * Recomputes both rollups from orders for each day in [from, to], one transaction per day.
+     * Null bounds default to the first order's day and today.
+     */
+    public int backfill(LocalDate from, LocalDate to) {
+        if (from == null) {
+            Timestamp first = jdbcTemplate.queryForObject("SELECT MIN(created_at) FROM orders", Timestamp.class);
+            if (first == null) {
+                return 0;
+            }
+            from = first.toLocalDateTime().toLocalDate();
+        }
+        if (to == null) {
+            to = LocalDate.now();
+        }
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        long start = System.currentTimeMillis();
+        TransactionTemplate perDay = new TransactionTemplate(transactionManager);
+        int days = 0;
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            LocalDate current = day;
+            perDay.executeWithoutResult(status -> rebuildDay(current));
+            days++;
+        }
+        System.out.println("Order rollups rebuilt for " + days + " days in " + (System.currentTimeMillis() - start) + " ms");
+        return days;
+    }
+
+    // Yesterday and today are rebuilt nightly, after late status changes have settled
+    @Scheduled(cron = "${analytics.rollups.rebuild-cron:0 15 4 * * *}")
+    public void rebuildRecent() {
+        backfill(LocalDate.now().minusDays(1), LocalDate.now());
+    }
+
+    private void rebuildDay(LocalDate day) {
+        Timestamp from = Timestamp.valueOf(day.atStartOfDay());
+        Timestamp to = Timestamp.valueOf(day.plusDays(1).atStartOfDay());
+        jdbcTemplate.update("DELETE FROM order_rollup_hourly WHERE bucket_start >= ? AND bucket_start < ?", from, to);
+        jdbcTemplate.update("DELETE FROM order_rollup_daily WHERE bucket_start >= ? AND bucket_start < ?", from, to);
+        jdbcTemplate.update("INSERT INTO order_rollup_hourly (bucket_start, restaurant_id, status_code, order_count, revenue, donation_amount) "
+                + "SELECT STR_TO_DATE(DATE_FORMAT(created_at, '%Y-%m-%d %H:00:00'), '%Y-%m-%d %H:%i:%s')" + REBUILD_SELECT, from, to);
+        jdbcTemplate.update("INSERT INTO order_rollup_daily (bucket_start, restaurant_id, status_code, order_count, revenue, donation_amount) "
+                + "SELECT CAST(DATE(created_at) AS DATETIME)" + REBUILD_SELECT, from, to);
+    }
+
+    private void add(LocalDateTime createdAt, Long restaurantId, OrderStatus status, long count, double revenue,
+            double donation) {
+        if (status == null) {
+            return;
+        }
+        LocalDateTime hour = createdAt.truncatedTo(ChronoUnit.HOURS);
+        LocalDateTime day = createdAt.truncatedTo(ChronoUnit.DAYS);
+        jdbcTemplate.update("INSERT INTO order_rollup_hourly" + UPSERT,
+                Timestamp.valueOf(hour), restaurantId, status.getCode(), count, revenue, donation);
+        jdbcTemplate.update("INSERT INTO order_rollup_daily" + UPSERT,
+                Timestamp.valueOf(day), restaurantId, status.getCode(), count, revenue, donation);
+    }
+}
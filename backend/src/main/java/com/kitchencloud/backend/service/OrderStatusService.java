@@ -0,0 +1,76 @@
+package com.kitchencloud.backend.service;
+
+import com.kitchencloud.backend.dto.OrderRoutingView;
+import com.kitchencloud.backend.event.OrderEvent;
+import com.kitchencloud.backend.model.OrderStatus;
+import com.kitchencloud.backend.repository.OrderRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+/**
+ * Moves orders through the OrderStatus state machine. Each transition is one conditional UPDATE
+ * on the status the caller last saw, so two dashboards racing on the same order cannot both win
+ * and an illegal jump is rejected without loading the full order.
+ */
+@Service
+public class OrderStatusService {
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate attemptTransaction;
+
+    @PostConstruct
+    public void init() {
+        attemptTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    // Retries only when another writer moved the order between the read and the update. Each
+    // attempt is its own transaction: inside one REPEATABLE READ transaction a retry would re-read
+    // the first attempt's snapshot and fail the same way.
+    public void updateStatus(Long orderId, OrderStatus status) {
+        for (int attempt = 0; attempt < 3; attempt++) {
+            if (Boolean.TRUE.equals(attemptTransaction.execute(tx -> tryUpdate(orderId, status)))) {
+                return;
+            }
+        }
+        throw new RuntimeException("Order is being updated concurrently, please retry");
+    }
+
+    // True when the order is now in the requested status, false when the compare-and-set lost a race
+    private boolean tryUpdate(Long orderId, OrderStatus status) {
+        OrderRoutingView order = orderRepository.findRoutingById(orderId)
+                .orElseThrow(() -> new RuntimeException("Order not found"));
+        // A row without a status code can never match the compare-and-set, so retrying would not help
+        if (order.getStatus() == null) {
+            throw new RuntimeException("Order has no status and cannot be updated");
+        }
+        OrderStatus previousStatus = order.getStatus();
+        if (previousStatus == status) {
+            return true;
+        }
+        if (!previousStatus.canTransitionTo(status)) {
+            throw new RuntimeException("Cannot change order from " + previousStatus.getValue()
+                    + " to " + status.getValue());
+        }
+        if (orderRepository.transitionStatus(orderId, previousStatus.getCode(), status.getCode(),
+                LocalDateTime.now()) != 1) {
+            return false;
+        }
+        orderRepository.findRoutingById(orderId).ifPresent(view ->
+                eventPublisher.publishEvent(OrderEvent.changed(OrderEvent.STATUS_CHANGED, view, previousStatus)));
+        return true;
+    }
+}
@@ -0,0 +1,251 @@
+package com.kitchencloud.backend.service;
+
+import com.kitchencloud.backend.event.MenuItemChangedEvent;
+import com.kitchencloud.backend.event.OrderEvent;
+import com.kitchencloud.backend.model.MenuItem;
+import com.kitchencloud.backend.repository.MenuItemRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Globally popular menu items with exponential time decay, kept as a ready-made top-K list.
+ * Uses forward decay: an order line at time t adds exp(lambda * (t - landmark)), so old scores never
+ * need rewriting and ranking is unchanged by the common factor. Deleted and unavailable items are
+ * dropped when the score or the item changes, so reads are a plain list copy with no database work.
+ * The periodic rebuild only swaps in its result on success; if the database is slow or down the
+ * last good list keeps being served.
+ */
+@Service
+public class PopularityService {
+
+    private static final double MAX_EXPONENT = 500; // exp(500) is still far from double overflow
+
+    @Value("${recommendations.popular.half-life-hours:72}")
+    private double halfLifeHours;
+
+    @Value("${recommendations.popular.window-half-lives:8}")
+    private int windowHalfLives;
+
+    @Value("${recommendations.popular.top-k:50}")
+    private int topK;
+
+    @Value("${recommendations.popular.rebuild-timeout-seconds:10}")
+    private int rebuildTimeoutSeconds;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    // Guarded by this
+    private Map<Long, Double> scores = new HashMap<>();
+    private Map<Long, MenuItem> eligible = new HashMap<>();
+    private long landmark = epochSeconds(LocalDateTime.now());
+    private List<OrderEvent> placedDuringRebuild;
+
+    private volatile List<MenuItem> snapshot = List.of();
+    private volatile boolean loaded;
+    private volatile LocalDateTime snapshotAt;
+    private volatile String lastRebuildError;
+    private volatile long lastRebuildMs;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(20)
+    public void load() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${recommendations.popular.rebuild-ms:3600000}",
+            initialDelayString = "${recommendations.popular.rebuild-ms:3600000}")
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        synchronized (this) {
+            placedDuringRebuild = new ArrayList<>();
+        }
+        try {
+            long freshLandmark = epochSeconds(LocalDateTime.now());
+            Map<Long, Double> freshScores = new HashMap<>();
+            // Ids the scan actually read; an order committed mid-scan is not among them whatever its id
+            LongIntMap scanned = new LongIntMap(1024);
+            LocalDateTime windowStart = LocalDateTime.now().minusMinutes((long) (halfLifeHours * 60 * windowHalfLives));
+
+            JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+            jdbc.setQueryTimeout(rebuildTimeoutSeconds);
+            jdbc.query("SELECT o.id, oi.menu_item_id, o.created_at FROM order_items oi JOIN orders o ON o.id = oi.order_id "
+                    + "WHERE o.created_at >= ? AND oi.menu_item_id IS NOT NULL", rs -> {
+                        scanned.addTo(rs.getLong(1), 1);
+                        double weight = weight(epochSeconds(rs.getTimestamp(3).toLocalDateTime()), freshLandmark);
+                        freshScores.merge(rs.getLong(2), weight, Double::sum);
+                    }, Timestamp.valueOf(windowStart));
+
+            Map<Long, MenuItem> freshEligible = new HashMap<>();
+            for (MenuItem item : menuItemRepository.findAllById(freshScores.keySet())) {
+                if (isEligible(item)) {
+                    freshEligible.put(item.getId(), item);
+                }
+            }
+
+            synchronized (this) {
+                scores = freshScores;
+                eligible = freshEligible;
+                landmark = freshLandmark;
+                for (OrderEvent event : placedDuringRebuild) {
+                    if (event.getOrderId() != null && scanned.get(event.getOrderId()) == 0) {
+                        addOrder(event);
+                    }
+                }
+                placedDuringRebuild = null;
+                publishSnapshot();
+            }
+            loaded = true;
+            lastRebuildError = null;
+            lastRebuildMs = System.currentTimeMillis() - start;
+            System.out.println("Popular items rebuilt from " + freshScores.size() + " items in " + lastRebuildMs + " ms");
+        } catch (Exception e) {
+            synchronized (this) {
+                placedDuringRebuild = null;
+            }
+            lastRebuildError = e.getMessage();
+            System.err.println("Popular items rebuild failed, keeping last snapshot: " + e.getMessage());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderEvent(OrderEvent event) {
+        if (!OrderEvent.CREATED.equals(event.getType()) || event.getItems() == null) {
+            return;
+        }
+        Set<Long> missing = new HashSet<>();
+        synchronized (this) {
+            for (OrderEvent.Item item : event.getItems()) {
+                if (item.getMenuItemId() != null && !eligible.containsKey(item.getMenuItemId())) {
+                    missing.add(item.getMenuItemId());
+                }
+            }
+        }
+        // First order of an item since the last rebuild: fetch it here, never on the read path
+        List<MenuItem> loadedItems = missing.isEmpty() ? List.of() : menuItemRepository.findAllById(missing);
+        synchronized (this) {
+            for (MenuItem item : loadedItems) {
+                if (isEligible(item)) {
+                    eligible.put(item.getId(), item);
+                }
+            }
+            if (placedDuringRebuild != null) {
+                placedDuringRebuild.add(event);
+            }
+            addOrder(event);
+            publishSnapshot();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMenuItemChanged(MenuItemChangedEvent event) {
+        MenuItem item = menuItemRepository.findById(event.getMenuItemId()).orElse(null);
+        synchronized (this) {
+            if (item != null && isEligible(item)) {
+                eligible.put(item.getId(), item);
+            } else {
+                eligible.remove(event.getMenuItemId());
+            }
+            publishSnapshot();
+        }
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public List<MenuItem> topItems(int limit) {
+        List<MenuItem> current = snapshot;
+        return current.size() <= limit ? current : current.subList(0, limit);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        synchronized (this) {
+            stats.put("trackedItems", scores.size());
+            stats.put("eligibleItems", eligible.size());
+        }
+        stats.put("loaded", loaded);
+        stats.put("snapshotSize", snapshot.size());
+        stats.put("snapshotAt", snapshotAt);
+        stats.put("lastRebuildMs", lastRebuildMs);
+        stats.put("lastRebuildError", lastRebuildError);
+        return stats;
+    }
+
+    // Caller holds the lock
+    private void addOrder(OrderEvent event) {
+        LocalDateTime at = event.getCreatedAt() != null ? event.getCreatedAt() : event.getOccurredAt();
+        long now = epochSeconds(at);
+        if (lambda() * (now - landmark) > MAX_EXPONENT) {
+            // Move the landmark forward; scaling every score by the same factor keeps the ranking
+            double scale = Math.exp(-lambda() * (now - landmark));
+            scores.replaceAll((id, score) -> score * scale);
+            landmark = now;
+        }
+        double weight = weight(now, landmark);
+        for (OrderEvent.Item item : event.getItems()) {
+            if (item.getMenuItemId() != null) {
+                scores.merge(item.getMenuItemId(), weight, Double::sum);
+            }
+        }
+    }
+
+    // Caller holds the lock
+    private void publishSnapshot() {
+        PriorityQueue<Map.Entry<Long, Double>> top = new PriorityQueue<>(Map.Entry.comparingByValue());
+        for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+            if (!eligible.containsKey(entry.getKey())) {
+                continue;
+            }
+            top.offer(entry);
+            if (top.size() > topK) {
+                top.poll();
+            }
+        }
+        List<MenuItem> items = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            items.add(0, eligible.get(top.poll().getKey()));
+        }
+        snapshot = List.copyOf(items);
+        snapshotAt = LocalDateTime.now();
+    }
+
+    private double weight(long at, long landmarkSeconds) {
+        return Math.exp(lambda() * (at - landmarkSeconds));
+    }
+
+    private double lambda() {
+        return Math.log(2) / (halfLifeHours * 3600);
+    }
+
+    private static boolean isEligible(MenuItem item) {
+        return !item.isDeleted() && item.isAvailable();
+    }
+
+    private static long epochSeconds(LocalDateTime time) {
+        return (time != null ? time : LocalDateTime.now()).toEpochSecond(ZoneOffset.UTC);
+    }
+}
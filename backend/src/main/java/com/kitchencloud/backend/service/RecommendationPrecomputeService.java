@@ -0,0 +1,187 @@
+package com.kitchencloud.backend.service;
+
+import com.kitchencloud.backend.event.OrderEvent;
+import com.kitchencloud.backend.repository.OrderRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Precomputes the personal part of every active user's recommendations (complements and favorites)
+ * as a compact long[] of menu item ids. Users are split into partitions and computed on a fork-join
+ * pool; the finished map replaces the previous one in a single swap. A user who places an order is
+ * dropped from the map and served live until the next run, as is anyone the run did not cover.
+ */
+@Service
+public class RecommendationPrecomputeService {
+
+    private static final long[] NONE = new long[0];
+
+    @Value("${recommendations.precompute.active-days:30}")
+    private int activeDays;
+
+    @Value("${recommendations.precompute.parallelism:4}")
+    private int parallelism;
+
+    @Value("${recommendations.precompute.partition-size:64}")
+    private int partitionSize;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private RecommendationService recommendationService;
+
+    private volatile Map<Long, long[]> precomputed = new ConcurrentHashMap<>();
+    private volatile Set<Long> orderedDuringRun;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private final AtomicLong served = new AtomicLong();
+    private final AtomicLong missed = new AtomicLong();
+    private final AtomicLong failedUsers = new AtomicLong();
+    private volatile LocalDateTime lastRunAt;
+    private volatile long lastRunMs;
+
+    // After the co-occurrence and popularity structures have loaded (@Order(20))
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(100)
+    public void load() {
+        run();
+    }
+
+    @Scheduled(cron = "${recommendations.precompute.cron:0 0 16 * * *}")
+    public void run() {
+        if (!running.compareAndSet(false, true)) {
+            System.out.println("Recommendation precompute already running, skipping");
+            return;
+        }
+        long start = System.currentTimeMillis();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            orderedDuringRun = ConcurrentHashMap.newKeySet();
+            List<Long> userIds = orderRepository.findActiveUserIds(LocalDateTime.now().minusDays(activeDays));
+            long[] users = new long[userIds.size()];
+            for (int i = 0; i < users.length; i++) {
+                users[i] = userIds.get(i);
+            }
+
+            Map<Long, long[]> fresh = new ConcurrentHashMap<>(Math.max(16, users.length * 4 / 3));
+            pool.invoke(new Partition(users, 0, users.length, fresh));
+
+            // Lists computed before a user's latest order are already stale. Swap before closing the
+            // run's order set, so an order landing in between is removed from the map now being served.
+            fresh.keySet().removeAll(orderedDuringRun);
+            precomputed = fresh;
+            Set<Long> ordered = orderedDuringRun;
+            orderedDuringRun = null;
+            fresh.keySet().removeAll(ordered);
+
+            lastRunAt = LocalDateTime.now();
+            lastRunMs = System.currentTimeMillis() - start;
+            System.out.println("Precomputed recommendations for " + fresh.size() + " users in " + lastRunMs + " ms");
+        } catch (Exception e) {
+            orderedDuringRun = null;
+            System.err.println("Recommendation precompute failed, keeping previous lists: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            pool.shutdown();
+            running.set(false);
+        }
+    }
+
+    // Null means there is no precomputed list and the caller should compute live
+    public long[] get(Long userId) {
+        long[] ids = userId != null ? precomputed.get(userId) : null;
+        if (ids == null) {
+            missed.incrementAndGet();
+        } else {
+            served.incrementAndGet();
+        }
+        return ids;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderEvent(OrderEvent event) {
+        if (!OrderEvent.CREATED.equals(event.getType()) || event.getUserId() == null) {
+            return;
+        }
+        Set<Long> ordered = orderedDuringRun;
+        if (ordered != null) {
+            ordered.add(event.getUserId());
+        }
+        precomputed.remove(event.getUserId());
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("users", precomputed.size());
+        stats.put("running", running.get());
+        stats.put("served", served.get());
+        stats.put("missed", missed.get());
+        stats.put("failedUsers", failedUsers.get());
+        stats.put("lastRunAt", lastRunAt);
+        stats.put("lastRunMs", lastRunMs);
+        return stats;
+    }
+
+    private class Partition extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final long[] users;
+        private final int from;
+        private final int to;
+        private final Map<Long, long[]> out;
+
+        private Partition(long[] users, int from, int to, Map<Long, long[]> out) {
+            this.users = users;
+            this.from = from;
+            this.to = to;
+            this.out = out;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= partitionSize) {
+                for (int i = from; i < to; i++) {
+                    computeUser(users[i]);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new Partition(users, from, mid, out), new Partition(users, mid, to, out));
+        }
+
+        private void computeUser(long userId) {
+            try {
+                List<Long> ids = recommendationService.personalItemIds(userId, true);
+                long[] compact = NONE;
+                if (!ids.isEmpty()) {
+                    compact = new long[ids.size()];
+                    for (int i = 0; i < compact.length; i++) {
+                        compact[i] = ids.get(i);
+                    }
+                }
+                out.put(userId, compact);
+            } catch (Exception e) {
+                failedUsers.incrementAndGet();
+                System.err.println("Precompute failed for user " + userId + ": " + e.getMessage());
+            }
+        }
+    }
+}
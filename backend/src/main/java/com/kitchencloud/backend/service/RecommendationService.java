@@ -4,7 +4,6 @@ import com.kitchencloud.backend.model.MenuItem;
 import com.kitchencloud.backend.repository.OrderItemRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
@@ -21,64 +20,94 @@ public class RecommendationService {
     @Autowired
     private com.kitchencloud.backend.repository.MenuItemRepository menuItemRepository;
 
+    @Autowired
+    private CoOccurrenceService coOccurrenceService;
+
+    @Autowired
+    private PopularityService popularityService;
+
+    @Autowired
+    private FavoritesCache favoritesCache;
+
+    private static final int MAX_COMPLEMENTS = 4;
+
     public List<MenuItem> getRecommendations(Long userId) {
-        Set<MenuItem> recommendations = new LinkedHashSet<>();
-        Pageable limit = PageRequest.of(0, 10);
+        return assemble(personalItemIds(userId, false));
+    }
+
+    // Serves a list computed by RecommendationPrecomputeService; only resolving the ids and the popular fill remain
+    public List<MenuItem> getRecommendations(long[] precomputedIds) {
+        List<Long> ids = new ArrayList<>(precomputedIds.length);
+        for (long id : precomputedIds) {
+            ids.add(id);
+        }
+        return assemble(ids);
+    }
 
+    /**
+     * The user-specific part of the list: complements of recent orders, then favorites. The batch job
+     * reads favorites straight from the database so a full run does not churn the favorites cache, and
+     * lets failures propagate so a partial list is never stored.
+     */
+    public List<Long> personalItemIds(Long userId, boolean batch) {
+        Set<Long> ids = new LinkedHashSet<>();
+        if (userId == null) {
+            return new ArrayList<>();
+        }
+
+        // 1. Items frequently ordered together with what the user ordered recently
         try {
-            // 1. Get User Favorites (if user is logged in)
-            if (userId != null) {
-                try {
-                    List<Long> userFavoriteIds = orderItemRepository.findUserFavoriteItemIds(userId, limit);
-                    if (userFavoriteIds != null && !userFavoriteIds.isEmpty()) {
-                        List<MenuItem> favorites = menuItemRepository.findAllById(userFavoriteIds);
-                        // Filter deleted items
-                        for (MenuItem item : favorites) {
-                            if (!item.isDeleted()) {
-                                recommendations.add(item);
-                            }
-                        }
-                    }
-                } catch (Exception e) {
-                    System.err.println("Error fetching user favorites: " + e.getMessage());
-                    e.printStackTrace();
-                }
+            List<Long> recentIds = orderItemRepository.findRecentItemIdsByUser(userId, PageRequest.of(0, 20));
+            if (recentIds != null && !recentIds.isEmpty()) {
+                ids.addAll(coOccurrenceService.complements(new LinkedHashSet<>(recentIds), MAX_COMPLEMENTS, null));
             }
+        } catch (RuntimeException e) {
+            if (batch) {
+                throw e;
+            }
+            System.err.println("Error fetching complements: " + e.getMessage());
+            e.printStackTrace();
+        }
 
-            // 2. Fill with Global Popular Items if we don't have enough
+        // 2. User favorites
+        try {
+            List<Long> userFavoriteIds = batch
+                    ? orderItemRepository.findUserFavoriteItemIds(userId, PageRequest.of(0, 10))
+                    : favoritesCache.getFavoriteItemIds(userId);
+            if (userFavoriteIds != null) {
+                ids.addAll(userFavoriteIds);
+            }
+        } catch (RuntimeException e) {
+            if (batch) {
+                throw e;
+            }
+            System.err.println("Error fetching user favorites: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return new ArrayList<>(ids);
+    }
+
+    private List<MenuItem> assemble(List<Long> personalIds) {
+        Set<MenuItem> recommendations = new LinkedHashSet<>();
+
+        try {
+            // Deleted or unavailable items are dropped here, so stale precomputed ids are harmless
+            recommendations.addAll(resolve(personalIds));
+
+            // 3. Fill with Global Popular Items if we don't have enough
             if (recommendations.size() < 10) {
-                try {
-                    // Increase limit for popular items to finding more candidates
-                    Pageable popularLimit = PageRequest.of(0, 50);
-                    List<Long> globalPopularIds = orderItemRepository.findGlobalPopularItemIds(popularLimit);
-                    
-                    if (globalPopularIds != null && !globalPopularIds.isEmpty()) {
-                        List<MenuItem> popularItems = menuItemRepository.findAllById(globalPopularIds);
-                        
-                        // Sort them back by popularity (order of ids) because findAllById might not preserve order
-                        // Actually, findAllById doesn't guarantee order. 
-                        // To preserve order of 'globalPopularIds', we should map them.
-                        // But strictly, we just want to add them.
-                        
-                        // We need to maintain the order of ID list for popularity
-                        java.util.Map<Long, MenuItem> itemMap = new java.util.HashMap<>();
-                        for(MenuItem item : popularItems) itemMap.put(item.getId(), item);
-                        
-                        for(Long id : globalPopularIds) {
-                            if (recommendations.size() >= 10) break;
-                            MenuItem item = itemMap.get(id);
-                            if(item != null && !item.isDeleted()) {
-                                recommendations.add(item);
-                            }
-                        }
+                if (popularityService.isLoaded()) {
+                    // Time-decayed list maintained in memory; already excludes deleted/unavailable items
+                    for (MenuItem item : popularityService.topItems(50)) {
+                        if (recommendations.size() >= 10) break;
+                        recommendations.add(item);
                     }
-                } catch (Exception e) {
-                    System.err.println("Error fetching global popular items: " + e.getMessage());
-                    e.printStackTrace();
+                } else {
+                    addGlobalPopularFromDatabase(recommendations);
                 }
             }
-            
-            // 3. REMOVED Fallback to "All Items". 
+
+            // 4. REMOVED Fallback to "All Items". 
             // We only show items that have actual order history (User or Global).
             // This prevents "Test" items or "My Kitchen" items from appearing unless they are actually ordered.
         } catch (Exception e) {
@@ -88,4 +117,53 @@ public class RecommendationService {
 
         return new ArrayList<>(recommendations);
     }
+
+    // Used only until the popularity snapshot has loaded once
+    private void addGlobalPopularFromDatabase(Set<MenuItem> recommendations) {
+        try {
+            List<Long> globalPopularIds = orderItemRepository.findGlobalPopularItemIds(PageRequest.of(0, 50));
+            for (MenuItem item : resolve(globalPopularIds)) {
+                if (recommendations.size() >= 10) break;
+                recommendations.add(item);
+            }
+        } catch (Exception e) {
+            System.err.println("Error fetching global popular items: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    public java.util.Map<String, Object> getStats() {
+        java.util.Map<String, Object> stats = new java.util.HashMap<>();
+        stats.put("coOccurrence", coOccurrenceService.getStats());
+        stats.put("popularity", popularityService.getStats());
+        stats.put("favorites", favoritesCache.getStats());
+        return stats;
+    }
+
+    // "Frequently ordered together" for a cart or item page
+    public List<MenuItem> getComplements(List<Long> itemIds, int limit) {
+        if (itemIds == null || itemIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return resolve(coOccurrenceService.complements(new LinkedHashSet<>(itemIds), Math.min(Math.max(limit, 1), 20), null));
+    }
+
+    // Loads menu items keeping the given order and drops deleted or unavailable ones
+    private List<MenuItem> resolve(List<Long> ids) {
+        List<MenuItem> result = new ArrayList<>();
+        if (ids.isEmpty()) {
+            return result;
+        }
+        java.util.Map<Long, MenuItem> itemMap = new java.util.HashMap<>();
+        for (MenuItem item : menuItemRepository.findAllById(ids)) {
+            itemMap.put(item.getId(), item);
+        }
+        for (Long id : ids) {
+            MenuItem item = itemMap.get(id);
+            if (item != null && !item.isDeleted() && item.isAvailable()) {
+                result.add(item);
+            }
+        }
+        return result;
+    }
 }
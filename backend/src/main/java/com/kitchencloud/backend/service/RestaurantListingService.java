@@ -0,0 +1,128 @@
+package com.kitchencloud.backend.service;
+
+import com.kitchencloud.backend.dto.RestaurantSummaryDTO;
+import com.kitchencloud.backend.repository.RestaurantRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.JpaSort;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Public restaurant listing: approved only, filtered and paged in the database, read as a column
+ * projection so the LONGTEXT image never leaves MySQL. Images are fetched one at a time from
+ * /api/restaurants/{id}/image.
+ */
+@Service
+public class RestaurantListingService {
+
+    @Value("${restaurants.page.default-size:100}")
+    private int defaultSize;
+
+    @Value("${restaurants.page.max-size:500}")
+    private int maxSize;
+
+    @Value("${geo.nearby.max-limit:100}")
+    private int maxNearbyLimit;
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Autowired
+    private GeoIndexService geoIndexService;
+
+    @Autowired
+    private MenuCache menuCache;
+
+    public Page<RestaurantSummaryDTO> approved(String cuisine, int page, Integer size, String sort, String direction) {
+        Sort.Direction dir = "desc".equalsIgnoreCase(direction) ? Sort.Direction.DESC : Sort.Direction.ASC;
+        String expression;
+        switch (sort == null ? "" : sort.toLowerCase()) {
+            case "name":
+                expression = "r.restaurantName";
+                break;
+            case "cuisine":
+                expression = "r.cuisineType";
+                break;
+            case "newest":
+                expression = "r.createdAt";
+                break;
+            default:
+                expression = "r.id";
+        }
+        // Tie-break on id so pages are stable
+        Sort order = JpaSort.unsafe(dir, expression).and(JpaSort.unsafe(dir, "r.id"));
+        int pageSize = Math.min(Math.max(size != null ? size : defaultSize, 1), maxSize);
+        String cuisineFilter = cuisine == null || cuisine.isBlank() ? null : cuisine.trim();
+
+        Page<RestaurantSummaryDTO> result = restaurantRepository.findApprovedSummaries(cuisineFilter,
+                PageRequest.of(Math.max(page, 0), pageSize, order));
+        linkImages(result.getContent());
+        return result;
+    }
+
+    // Closest approved restaurants within radiusKm, nearest first. The grid picks the ids in memory;
+    // the database only hydrates those rows by primary key.
+    public List<RestaurantSummaryDTO> nearby(double lat, double lng, double radiusKm, int limit) {
+        if (lat < -90 || lat > 90 || lng < -180 || lng > 180 || radiusKm <= 0) {
+            throw new IllegalArgumentException("Invalid location or radius");
+        }
+        List<GeoIndexService.Hit> hits = geoIndexService.nearest(lat, lng, Math.min(Math.max(limit, 1), maxNearbyLimit),
+                radiusKm);
+        if (hits.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, RestaurantSummaryDTO> byId = new HashMap<>();
+        List<Long> ids = new ArrayList<>();
+        for (GeoIndexService.Hit hit : hits) {
+            ids.add(hit.getRestaurantId());
+        }
+        for (RestaurantSummaryDTO restaurant : restaurantRepository.findApprovedSummariesByIds(ids)) {
+            byId.put(restaurant.getId(), restaurant);
+        }
+        List<RestaurantSummaryDTO> result = new ArrayList<>();
+        for (GeoIndexService.Hit hit : hits) {
+            RestaurantSummaryDTO restaurant = byId.get(hit.getRestaurantId());
+            if (restaurant != null) {
+                restaurant.setDistanceKm(Math.round(hit.getDistanceKm() * 100) / 100.0);
+                result.add(restaurant);
+            }
+        }
+        linkImages(result);
+        return result;
+    }
+
+    // "My Kitchen" as a list row, so clients can pin it without loading the whole listing; null if absent
+    public RestaurantSummaryDTO featured() {
+        Long restaurantId = menuCache.getFeaturedRestaurantId();
+        if (restaurantId == null) {
+            return null;
+        }
+        List<RestaurantSummaryDTO> rows = restaurantRepository.findApprovedSummariesByIds(List.of(restaurantId));
+        linkImages(rows);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    private void linkImages(List<RestaurantSummaryDTO> restaurants) {
+        String base = ServletUriComponentsBuilder.fromCurrentContextPath().path("/api/restaurants/").toUriString();
+        for (RestaurantSummaryDTO restaurant : restaurants) {
+            if (restaurant.isHasImage()) {
+                restaurant.setImageUrl(base + restaurant.getId() + "/image");
+            }
+        }
+    }
+
+    // Stored image reference for one restaurant: an inline data: URI, a URL or a path; null when none
+    public String imageOf(Long id) {
+        List<String> rows = restaurantRepository.findImageUrlById(id);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+}
@@ -0,0 +1,408 @@
+package com.kitchencloud.backend.service;
+
+import com.kitchencloud.backend.dto.SearchHitDTO;
+import com.kitchencloud.backend.event.MenuItemChangedEvent;
+import com.kitchencloud.backend.event.RestaurantChangedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process inverted index over dishes (name, category, description) and approved restaurants
+ * (name, cuisine, description), ranked with BM25. Field weights are folded into term frequencies.
+ * Each query token matches the exact term, terms it is a prefix of, and terms one or two edits
+ * away; weaker matches count for less. Built from two column-only queries at startup and kept
+ * current from MenuItemChangedEvent / RestaurantChangedEvent.
+ */
+@Service
+public class SearchIndexService {
+
+    public static final String DISH = "dish";
+    public static final String RESTAURANT = "restaurant";
+    public static final int MAX_QUERY_LENGTH = 200;
+
+    private static final float NAME_WEIGHT = 3f;
+    private static final float CATEGORY_WEIGHT = 2f;
+    private static final float DESCRIPTION_WEIGHT = 1f;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final float PREFIX_FACTOR = 0.7f;
+    private static final int MAX_PREFIX_EXPANSIONS = 30;
+    // Each token may scan a whole first-letter range for typos, so long queries are cut short
+    private static final int MAX_QUERY_TOKENS = 8;
+    private static final Set<String> STOP_WORDS = Set.of("a", "an", "and", "the", "of", "or", "with", "in", "on", "for", "to");
+
+    private static final String DISH_COLUMNS = "SELECT id, name, description, category, price, image_url, is_veg, restaurant_id FROM menu_items ";
+    private static final String RESTAURANT_COLUMNS = "SELECT id, restaurant_name, cuisine_type, description, image_url IS NOT NULL FROM restaurants ";
+
+    private static class Doc {
+        private final String type;
+        private final long id;
+        private final String name;
+        private final String detail;
+        private final String description;
+        private final Long restaurantId;
+        private final Double price;
+        private final Boolean veg;
+        private final String imageUrl;
+        private final boolean hasImage;
+        private final Map<String, Float> terms = new HashMap<>();
+        private float length;
+
+        private Doc(String type, long id, String name, String detail, String description, Long restaurantId,
+                Double price, Boolean veg, String imageUrl, boolean hasImage) {
+            this.type = type;
+            this.id = id;
+            this.name = name;
+            this.detail = detail;
+            this.description = description;
+            this.restaurantId = restaurantId;
+            this.price = price;
+            this.veg = veg;
+            this.imageUrl = imageUrl;
+            this.hasImage = hasImage;
+            addField(name, NAME_WEIGHT);
+            addField(detail, CATEGORY_WEIGHT);
+            addField(description, DESCRIPTION_WEIGHT);
+        }
+
+        private void addField(String text, float weight) {
+            for (String token : tokenize(text)) {
+                terms.merge(token, weight, Float::sum);
+                length += weight;
+            }
+        }
+
+        private long key() {
+            return keyOf(type, id);
+        }
+    }
+
+    private static class Index {
+        private final TreeMap<String, Map<Long, Float>> postings = new TreeMap<>();
+        private final Map<Long, Doc> docs = new HashMap<>();
+        private final Set<Long> approvedRestaurants = new HashSet<>();
+        private double totalLength;
+
+        private void put(Doc doc) {
+            remove(doc.key());
+            docs.put(doc.key(), doc);
+            totalLength += doc.length;
+            for (Map.Entry<String, Float> term : doc.terms.entrySet()) {
+                postings.computeIfAbsent(term.getKey(), t -> new HashMap<>()).put(doc.key(), term.getValue());
+            }
+            if (RESTAURANT.equals(doc.type)) {
+                approvedRestaurants.add(doc.id);
+            }
+        }
+
+        private void remove(long key) {
+            Doc doc = docs.remove(key);
+            if (doc == null) {
+                return;
+            }
+            totalLength -= doc.length;
+            for (String term : doc.terms.keySet()) {
+                Map<Long, Float> posting = postings.get(term);
+                if (posting != null) {
+                    posting.remove(key);
+                    if (posting.isEmpty()) {
+                        postings.remove(term);
+                    }
+                }
+            }
+            if (RESTAURANT.equals(doc.type)) {
+                approvedRestaurants.remove(doc.id);
+            }
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Index index = new Index(); // Guarded by lock
+    private Set<Long> changedDuringRebuild; // Guarded by lock
+    private volatile long lastRebuildMs;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(20)
+    public void load() {
+        rebuild();
+    }
+
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            changedDuringRebuild = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Index fresh = new Index();
+        try {
+            jdbcTemplate.query(RESTAURANT_COLUMNS + "WHERE approved = true", rs -> { fresh.put(restaurantDoc(rs)); });
+            jdbcTemplate.query(DISH_COLUMNS + "WHERE deleted = false AND available = true", rs -> { fresh.put(dishDoc(rs)); });
+        } catch (Exception e) {
+            lock.writeLock().lock();
+            try {
+                changedDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            System.err.println("Search index rebuild failed, keeping the current index: " + e.getMessage());
+            return;
+        }
+
+        Set<Long> changed;
+        lock.writeLock().lock();
+        try {
+            index = fresh;
+            changed = changedDuringRebuild;
+            changedDuringRebuild = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        // Writes that landed while the tables were being read may be missing from the fresh index
+        for (Long key : changed) {
+            refresh(key);
+        }
+        lastRebuildMs = System.currentTimeMillis() - start;
+        System.out.println("Search index built with " + fresh.docs.size() + " documents and "
+                + fresh.postings.size() + " terms in " + lastRebuildMs + " ms");
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMenuItemChanged(MenuItemChangedEvent event) {
+        if (event.getMenuItemId() != null) {
+            refresh(keyOf(DISH, event.getMenuItemId()));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRestaurantChanged(RestaurantChangedEvent event) {
+        if (event.getRestaurantId() != null) {
+            refresh(keyOf(RESTAURANT, event.getRestaurantId()));
+        }
+    }
+
+    // Re-reads one document; it drops out of the index if it is gone, deleted, unavailable or unapproved
+    private void refresh(long key) {
+        long id = key >>> 1;
+        List<Doc> rows = (key & 1) == 0
+                ? jdbcTemplate.query(DISH_COLUMNS + "WHERE id = ? AND deleted = false AND available = true",
+                        (rs, n) -> dishDoc(rs), id)
+                : jdbcTemplate.query(RESTAURANT_COLUMNS + "WHERE id = ? AND approved = true",
+                        (rs, n) -> restaurantDoc(rs), id);
+        lock.writeLock().lock();
+        try {
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.add(key);
+            }
+            if (rows.isEmpty()) {
+                index.remove(key);
+            } else {
+                index.put(rows.get(0));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<SearchHitDTO> search(String query, String type, int limit, String restaurantImageBase) {
+        List<String> tokens = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+        if (tokens.size() > MAX_QUERY_TOKENS) {
+            tokens = new ArrayList<>(tokens.subList(0, MAX_QUERY_TOKENS));
+        }
+        List<SearchHitDTO> hits = new ArrayList<>();
+        if (tokens.isEmpty() || limit <= 0) {
+            return hits;
+        }
+        lock.readLock().lock();
+        try {
+            Index current = index;
+            int n = Math.max(current.docs.size(), 1);
+            double avgLength = current.totalLength > 0 ? current.totalLength / n : 1;
+            Map<Long, Double> scores = new HashMap<>();
+            Map<Long, Integer> matched = new HashMap<>();
+
+            for (String token : tokens) {
+                // Best contribution per document for this token, so a prefix and a typo match are not both counted
+                Map<Long, Double> best = new HashMap<>();
+                for (Map.Entry<String, Float> expansion : expand(current, token).entrySet()) {
+                    Map<Long, Float> posting = current.postings.get(expansion.getKey());
+                    double idf = Math.log(1 + (n - posting.size() + 0.5) / (posting.size() + 0.5));
+                    for (Map.Entry<Long, Float> entry : posting.entrySet()) {
+                        Doc doc = current.docs.get(entry.getKey());
+                        double tf = entry.getValue();
+                        double score = expansion.getValue() * idf * tf * (K1 + 1)
+                                / (tf + K1 * (1 - B + B * doc.length / avgLength));
+                        best.merge(entry.getKey(), score, Math::max);
+                    }
+                }
+                for (Map.Entry<Long, Double> entry : best.entrySet()) {
+                    scores.merge(entry.getKey(), entry.getValue(), Double::sum);
+                    matched.merge(entry.getKey(), 1, Integer::sum);
+                }
+            }
+
+            PriorityQueue<Map.Entry<Long, Double>> top = new PriorityQueue<>(Map.Entry.comparingByValue());
+            for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+                Doc doc = current.docs.get(entry.getKey());
+                if (type != null && !type.equals(doc.type)) {
+                    continue;
+                }
+                // Dishes of restaurants that are not approved stay out of results
+                if (DISH.equals(doc.type) && doc.restaurantId != null && !current.approvedRestaurants.contains(doc.restaurantId)) {
+                    continue;
+                }
+                // Documents matching every query token rank above partial matches
+                entry.setValue(entry.getValue() * matched.get(entry.getKey()) / tokens.size());
+                top.offer(entry);
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+            while (!top.isEmpty()) {
+                Map.Entry<Long, Double> entry = top.poll();
+                hits.add(0, toHit(current.docs.get(entry.getKey()), entry.getValue(), restaurantImageBase));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return hits;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            stats.put("documents", index.docs.size());
+            stats.put("terms", index.postings.size());
+            stats.put("approvedRestaurants", index.approvedRestaurants.size());
+            stats.put("rebuilding", changedDuringRebuild != null);
+        } finally {
+            lock.readLock().unlock();
+        }
+        stats.put("lastRebuildMs", lastRebuildMs);
+        return stats;
+    }
+
+    // Index terms a query token may stand for, with how much a match on each counts
+    private Map<String, Float> expand(Index current, String token) {
+        Map<String, Float> terms = new HashMap<>();
+        if (current.postings.containsKey(token)) {
+            terms.put(token, 1f);
+        }
+        int prefixes = 0;
+        for (String term : current.postings.subMap(token, false, token + Character.MAX_VALUE, false).keySet()) {
+            if (++prefixes > MAX_PREFIX_EXPANSIONS) {
+                break;
+            }
+            terms.put(term, PREFIX_FACTOR);
+        }
+        // Typos: one edit from 4 letters, two from 8; the first letter is assumed right
+        int maxEdits = token.length() >= 8 ? 2 : token.length() >= 4 ? 1 : 0;
+        if (maxEdits > 0 && terms.isEmpty()) {
+            String first = token.substring(0, 1);
+            for (String term : current.postings.subMap(first, true, first + Character.MAX_VALUE, false).keySet()) {
+                if (Math.abs(term.length() - token.length()) > maxEdits) {
+                    continue;
+                }
+                int edits = editDistance(token, term, maxEdits);
+                if (edits <= maxEdits) {
+                    terms.merge(term, edits == 1 ? 0.5f : 0.3f, Math::max);
+                }
+            }
+        }
+        return terms;
+    }
+
+    private SearchHitDTO toHit(Doc doc, double score, String restaurantImageBase) {
+        String imageUrl = RESTAURANT.equals(doc.type)
+                ? (doc.hasImage && restaurantImageBase != null ? restaurantImageBase + doc.id + "/image" : null)
+                : doc.imageUrl;
+        return new SearchHitDTO(doc.type, doc.id, doc.name, doc.detail, doc.description, doc.restaurantId,
+                doc.price, doc.veg, imageUrl, score);
+    }
+
+    private static Doc dishDoc(ResultSet rs) throws SQLException {
+        return new Doc(DISH, rs.getLong(1), rs.getString(2), rs.getString(4), rs.getString(3),
+                rs.getObject(8) != null ? rs.getLong(8) : null, rs.getObject(5) != null ? rs.getDouble(5) : null,
+                rs.getBoolean(7), rs.getString(6), rs.getString(6) != null);
+    }
+
+    private static Doc restaurantDoc(ResultSet rs) throws SQLException {
+        return new Doc(RESTAURANT, rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4),
+                rs.getLong(1), null, null, null, rs.getBoolean(5));
+    }
+
+    private static long keyOf(String type, long id) {
+        return (id << 1) | (DISH.equals(type) ? 0 : 1);
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return tokens;
+        }
+        // Lowercase and strip accents, so an accented "creme" still matches
+        String folded = Normalizer.normalize(text, Normalizer.Form.NFD).replaceAll("\\p{M}", "").toLowerCase(Locale.ROOT);
+        for (String token : folded.split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty() && !STOP_WORDS.contains(token)) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    // Optimal string alignment distance (adjacent swaps count as one edit); stops early past max
+    static int editDistance(String a, String b, int max) {
+        int[] prevPrev = new int[b.length() + 1];
+        int[] prev = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            prev[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(prev[j] + 1, current[j - 1] + 1), prev[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, prevPrev[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] recycled = prevPrev;
+            prevPrev = prev;
+            prev = current;
+            current = recycled;
+        }
+        return prev[b.length()];
+    }
+}
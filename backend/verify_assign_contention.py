@@ -0,0 +1,117 @@
+import json
+import sys
+import threading
+import time
+from concurrent.futures import ThreadPoolExecutor
+
+from verify_flow import BASE_URL, login, make_request, print_step
+
+# Contention check for PUT /api/orders/assign/{orderId}: many approved riders claim the
+# same ready order at the same instant and exactly one of them must win.
+#
+# Usage: python verify_assign_contention.py [riders] [orderId]
+# Without an orderId the first unassigned pending/ready order is used.
+
+RIDERS = int(sys.argv[1]) if len(sys.argv) > 1 else 30
+ORDER_ID = int(sys.argv[2]) if len(sys.argv) > 2 else None
+timestamp = int(time.time())
+
+
+def admin_headers(token):
+    return {"Authorization": f"Bearer {token}"}
+
+
+def find_open_order(admin_token):
+    status, body = make_request(f"{BASE_URL}/orders", "GET", headers=admin_headers(admin_token))
+    if status != 200 or not isinstance(body, list):
+        print(f"Failed to list orders: {body}")
+        return None
+    for order in body:
+        if order.get("deliveryBoy") is None and order.get("status") in ("pending", "accepted", "preparing", "ready"):
+            return order
+    return None
+
+
+def walk_to_ready(admin_token, order):
+    flow = ["pending", "accepted", "preparing", "ready"]
+    current = order.get("status")
+    for next_status in flow[flow.index(current) + 1:]:
+        url = f"{BASE_URL}/orders/status/{order['id']}?status={next_status}"
+        status, body = make_request(url, "PUT", headers=admin_headers(admin_token))
+        print(f"  {current} -> {next_status}: {status}")
+        current = next_status
+
+
+def create_rider(admin_token, index):
+    email = f"rider{timestamp}_{index}@test.com"
+    data = {
+        "fullName": f"Rider {index}",
+        "email": email,
+        "phone": "1234567890",
+        "password": "password",
+        "vehicleType": "Bike",
+        "drivingLicenseNumber": f"DL{timestamp}{index}",
+    }
+    status, body = make_request(f"{BASE_URL}/auth/register/delivery", "POST", data)
+    if status != 200 or not isinstance(body, dict) or not body.get("success"):
+        print(f"Failed to register {email}: {body}")
+        return None
+    make_request(f"{BASE_URL}/admin/approve/delivery/{body.get('id')}", "PUT", headers=admin_headers(admin_token))
+    return login(email, "password", "DELIVERY")
+
+
+def main():
+    print_step("1. Login Admin")
+    admin_token = login("admin@kitchencloud.com", "admin123")
+    if not admin_token:
+        print("Cannot proceed without admin token.")
+        return 1
+
+    print_step("2. Prepare a ready order")
+    if ORDER_ID is not None:
+        order = {"id": ORDER_ID, "status": "ready"}
+    else:
+        order = find_open_order(admin_token)
+        if order is None:
+            print("No unassigned order found; place one first (e.g. from the customer UI).")
+            return 1
+        walk_to_ready(admin_token, order)
+    print(f"Using order {order['id']}")
+
+    print_step(f"3. Register and approve {RIDERS} riders")
+    tokens = [t for t in (create_rider(admin_token, i) for i in range(RIDERS)) if t]
+    print(f"{len(tokens)} riders logged in")
+
+    print_step("4. Claim concurrently")
+    barrier = threading.Barrier(len(tokens))
+
+    def claim(token):
+        barrier.wait()
+        start = time.perf_counter()
+        status, body = make_request(f"{BASE_URL}/orders/assign/{order['id']}", "PUT",
+                                    headers={"Authorization": f"Bearer {token}"})
+        return status, body, (time.perf_counter() - start) * 1000
+
+    with ThreadPoolExecutor(max_workers=len(tokens)) as pool:
+        results = list(pool.map(claim, tokens))
+
+    winners = [r for r in results if r[0] == 200]
+    losers = {}
+    for status, body, _ in results:
+        if status != 200:
+            losers[str(body)] = losers.get(str(body), 0) + 1
+    latencies = sorted(r[2] for r in results)
+
+    print(f"Winners: {len(winners)}")
+    print(f"Losers:  {json.dumps(losers, indent=2)}")
+    print(f"Latency ms: p50={latencies[len(latencies) // 2]:.1f} max={latencies[-1]:.1f}")
+
+    if len(winners) == 1:
+        print("PASS: exactly one rider won the order")
+        return 0
+    print("FAIL: expected exactly one winner")
+    return 1
+
+
+if __name__ == "__main__":
+    sys.exit(main())
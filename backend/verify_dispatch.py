@@ -0,0 +1,225 @@
+import json
+import random
+import sys
+import threading
+import time
+from concurrent.futures import ThreadPoolExecutor
+
+from verify_flow import BASE_URL, make_request, print_step
+
+# Load harness for the dispatch engine (start the backend with dispatch.enabled=true).
+# Places many orders at once, moves them all to ready, and lets simulated riders deliver
+# whatever the dispatcher hands them. It then reports ready-to-assigned latency, both as the
+# server measured it and as the riders observed it.
+#
+# Usage: python verify_dispatch.py [orders] [riders] [threads] [deliverMs]
+
+ORDERS = int(sys.argv[1]) if len(sys.argv) > 1 else 2000
+RIDERS = int(sys.argv[2]) if len(sys.argv) > 2 else 50
+THREADS = int(sys.argv[3]) if len(sys.argv) > 3 else 64
+DELIVER_MS = int(sys.argv[4]) if len(sys.argv) > 4 else 300
+TIMEOUT_S = 600
+timestamp = int(time.time())
+
+
+def auth(token):
+    return {"Authorization": f"Bearer {token}"}
+
+
+def login(email, password, role="USER"):
+    status, body = make_request(f"{BASE_URL}/auth/login", "POST",
+                                {"email": email, "password": password, "role": role})
+    if status == 200 and isinstance(body, dict) and body.get("token"):
+        return body
+    print(f"Login failed for {email}: {body}")
+    return None
+
+
+def percentiles(values):
+    if not values:
+        return "no samples"
+    values = sorted(values)
+
+    def at(p):
+        return values[min(len(values) - 1, max(0, int(p * len(values) + 0.5) - 1))]
+
+    return f"n={len(values)} p50={at(0.5):.0f} p90={at(0.9):.0f} p99={at(0.99):.0f} max={values[-1]:.0f}"
+
+
+def find_menu_item():
+    status, restaurants = make_request(f"{BASE_URL}/restaurants?size=50")
+    if status != 200 or not isinstance(restaurants, list):
+        return None, None
+    for restaurant in restaurants:
+        status, menu = make_request(f"{BASE_URL}/menu/restaurant/{restaurant['id']}")
+        if status == 200 and isinstance(menu, list):
+            for item in menu:
+                if item.get("available", True):
+                    return restaurant, item
+    return None, None
+
+
+def create_rider(admin_token, index, near):
+    email = f"dispatch{timestamp}_{index}@test.com"
+    status, body = make_request(f"{BASE_URL}/auth/register/delivery", "POST", {
+        "fullName": f"Dispatch Rider {index}",
+        "email": email,
+        "phone": "1234567890",
+        "password": "password",
+        "vehicleType": "Bike",
+        "drivingLicenseNumber": f"DSP{timestamp}{index}",
+    })
+    if status != 200 or not isinstance(body, dict) or not body.get("success"):
+        print(f"Failed to register {email}: {body}")
+        return None
+    make_request(f"{BASE_URL}/admin/approve/delivery/{body.get('id')}", "PUT", headers=auth(admin_token))
+    session = login(email, "password", "DELIVERY")
+    if not session:
+        return None
+    token = session["token"]
+    if near is not None:
+        lat = near[0] + random.uniform(-0.05, 0.05)
+        lng = near[1] + random.uniform(-0.05, 0.05)
+        make_request(f"{BASE_URL}/orders/delivery/location?lat={lat}&lng={lng}", "PUT", headers=auth(token))
+    make_request(f"{BASE_URL}/orders/delivery/availability?available=true", "PUT", headers=auth(token))
+    return token
+
+
+def place_order(customer, restaurant, item, index):
+    request = {
+        "userId": customer["id"],
+        "userPhone": "1234567890",
+        "userAddress": f"Load test {index}",
+        "restaurantId": restaurant["id"],
+        "items": [{"menuItemId": item["id"], "quantity": 1}],
+        "total": item.get("price"),
+        "paymentId": f"dispatch-{timestamp}-{index}",
+    }
+    status, body = make_request(f"{BASE_URL}/orders/place", "POST", request, headers=auth(customer["token"]))
+    if status == 200 and isinstance(body, dict):
+        return body.get("id")
+    if status == 202 and isinstance(body, dict):
+        # Async intake: poll the token until the order is written
+        for _ in range(200):
+            time.sleep(0.05)
+            status, result = make_request(f"{BASE_URL}/orders/intake/{body['token']}")
+            if isinstance(result, dict) and result.get("status") == "PLACED":
+                return result.get("orderId")
+            if isinstance(result, dict) and result.get("status") in ("REJECTED", "FAILED"):
+                break
+    print(f"Order {index} not placed: {status} {body}")
+    return None
+
+
+def main():
+    print_step("1. Login Admin")
+    admin = login("admin@kitchencloud.com", "admin123")
+    if not admin:
+        print("Cannot proceed without admin token.")
+        return 1
+    admin_token = admin["token"]
+
+    status, stats = make_request(f"{BASE_URL}/admin/dispatch/stats", headers=auth(admin_token))
+    if status != 200 or not isinstance(stats, dict) or not stats.get("enabled"):
+        print(f"Dispatch is not enabled on the server (dispatch.enabled=true): {stats}")
+        return 1
+
+    print_step("2. Pick a restaurant and dish")
+    restaurant, item = find_menu_item()
+    if restaurant is None:
+        print("No approved restaurant with a menu item found; add one first.")
+        return 1
+    near = None
+    status, full = make_request(f"{BASE_URL}/restaurants/{restaurant['id']}")
+    if status == 200 and isinstance(full, dict) and full.get("latitude") is not None:
+        near = (full["latitude"], full["longitude"])
+    print(f"Restaurant {restaurant['id']} ({restaurant.get('restaurantName')}), item {item['id']}, position {near}")
+
+    print_step("3. Customer")
+    email = f"dispatchcust{timestamp}@test.com"
+    make_request(f"{BASE_URL}/auth/register/user", "POST", {
+        "fullName": "Dispatch Customer", "email": email, "phone": "1234567890",
+        "password": "password", "address": "Load test",
+    })
+    customer = login(email, "password", "USER")
+    if not customer:
+        return 1
+
+    print_step(f"4. Register {RIDERS} riders")
+    with ThreadPoolExecutor(max_workers=min(THREADS, RIDERS)) as pool:
+        riders = [t for t in pool.map(lambda i: create_rider(admin_token, i, near), range(RIDERS)) if t]
+    print(f"{len(riders)} riders on shift")
+
+    print_step(f"5. Place {ORDERS} orders with {THREADS} threads")
+    start = time.perf_counter()
+    with ThreadPoolExecutor(max_workers=THREADS) as pool:
+        order_ids = [o for o in pool.map(lambda i: place_order(customer, restaurant, item, i), range(ORDERS)) if o]
+    print(f"{len(order_ids)} orders placed in {time.perf_counter() - start:.1f}s")
+    make_request(f"{BASE_URL}/admin/dispatch/stats/reset", "POST", headers=auth(admin_token))
+
+    ready_at = {}
+    seen_at = {}
+    lock = threading.Lock()
+    done = threading.Event()
+
+    def rider_loop(token):
+        delivering = {}
+        while not done.is_set():
+            status, orders = make_request(f"{BASE_URL}/orders/delivery?limit=500", headers=auth(token))
+            now = time.perf_counter()
+            if status == 200 and isinstance(orders, list):
+                for order in orders:
+                    if order.get("status") == "out-for-delivery" and order["id"] not in delivering:
+                        delivering[order["id"]] = now
+                        with lock:
+                            seen_at.setdefault(order["id"], now)
+            for order_id, picked in list(delivering.items()):
+                if now - picked >= DELIVER_MS / 1000.0:
+                    make_request(f"{BASE_URL}/orders/status/{order_id}?status=delivered", "PUT", headers=auth(token))
+                    delivering.pop(order_id)
+            time.sleep(0.05)
+
+    print_step("6. Move orders to ready; riders deliver what they are given")
+    rider_threads = [threading.Thread(target=rider_loop, args=(t,), daemon=True) for t in riders]
+    for thread in rider_threads:
+        thread.start()
+
+    def make_ready(order_id):
+        for next_status in ("accepted", "preparing", "ready"):
+            make_request(f"{BASE_URL}/orders/status/{order_id}?status={next_status}", "PUT", headers=auth(admin_token))
+        with lock:
+            ready_at[order_id] = time.perf_counter()
+
+    start = time.perf_counter()
+    with ThreadPoolExecutor(max_workers=THREADS) as pool:
+        list(pool.map(make_ready, order_ids))
+    print(f"All orders ready after {time.perf_counter() - start:.1f}s")
+
+    deadline = time.time() + TIMEOUT_S
+    while time.time() < deadline:
+        with lock:
+            assigned = sum(1 for o in order_ids if o in seen_at)
+        if assigned >= len(order_ids):
+            break
+        print(f"  assigned {assigned}/{len(order_ids)}")
+        time.sleep(2)
+    done.set()
+    elapsed = time.perf_counter() - start
+
+    print_step("7. Results")
+    status, stats = make_request(f"{BASE_URL}/admin/dispatch/stats", headers=auth(admin_token))
+    print(json.dumps(stats, indent=2))
+    observed = [(seen_at[o] - ready_at[o]) * 1000 for o in order_ids if o in seen_at and o in ready_at]
+    print(f"Rider-observed ready->assigned ms (includes 50ms polling): {percentiles(observed)}")
+    print(f"Assigned {len(seen_at)}/{len(order_ids)} orders in {elapsed:.1f}s "
+          f"({len(seen_at) / max(elapsed, 0.001):.0f} orders/s)")
+
+    if len(seen_at) >= len(order_ids):
+        print("PASS: every order was dispatched")
+        return 0
+    print("FAIL: some orders were never dispatched")
+    return 1
+
+
+if __name__ == "__main__":
+    sys.exit(main())
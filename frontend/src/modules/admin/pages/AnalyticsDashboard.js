@@ -5,7 +5,6 @@ import { useMemo, useState, useEffect } from "react";
 
 const AnalyticsDashboard = () => {
     const context = useApp();
-    const restaurants = context.restaurants || [];
     const orders = context.orders || [];
 
     const [realStats, setRealStats] = useState({ weeklyRevenue: 0, weeklyOrders: 0 });
@@ -79,7 +78,7 @@ const AnalyticsDashboard = () => {
     const weeklyRevenue = realStats.weeklyRevenue;
     const weeklyOrders = realStats.weeklyOrders;
     const newCustomers = Math.floor(weeklyOrders * 0.15); // Est. 15% new
-    const activeRestaurants = restaurants.filter(r => r.approved).length;
+    const activeRestaurants = context.restaurantCount || 0;
 
     return (
         <div className="space-y-6 animate-fade-in">
@@ -11,19 +11,26 @@ import {
 import { toast } from "sonner";
 import API from "@/services/api";
 
+const PAGE_SIZE = 25;
+
 const CustomerManagement = () => {
     const [customers, setCustomers] = useState([]);
     const [loading, setLoading] = useState(true);
     const [searchTerm, setSearchTerm] = useState("");
+    const [page, setPage] = useState(0);
+    const [total, setTotal] = useState(0);
+    const [sort, setSort] = useState("recent");
+    const [direction, setDirection] = useState("desc");
 
-    // Fetch customers
+    // One page at a time, sorted and paged by the server; X-Total-Count only drives the pager
     const fetchCustomers = async () => {
         try {
             setLoading(true);
-            const response = await API.get("/admin/customers");
-            if (response.data) {
-                setCustomers(response.data);
-            }
+            const response = await API.get("/admin/customers", {
+                params: { page, size: PAGE_SIZE, sort, direction }
+            });
+            setCustomers(response.data || []);
+            setTotal(Number(response.headers['x-total-count'] || 0));
         } catch (error) {
             console.error("Failed to fetch customers", error);
             // toast.error("Failed to load customers");
@@ -34,7 +41,25 @@ const CustomerManagement = () => {
 
     useEffect(() => {
         fetchCustomers();
-    }, []);
+    }, [page, sort, direction]);
+
+    const totalPages = Math.max(1, Math.ceil(total / PAGE_SIZE));
+
+    const toggleSort = (column) => {
+        if (sort === column) {
+            setDirection(direction === "asc" ? "desc" : "asc");
+        } else {
+            setSort(column);
+            setDirection(column === "name" ? "asc" : "desc");
+        }
+        setPage(0);
+    };
+
+    const sortLabel = (column, label) => (
+        <button type="button" className="hover:text-foreground" onClick={() => toggleSort(column)}>
+            {label}{sort === column ? (direction === "asc" ? " \u2191" : " \u2193") : ""}
+        </button>
+    );
 
     const filteredCustomers = customers.filter(
         (customer) =>
@@ -96,7 +121,7 @@ const CustomerManagement = () => {
                 <div className="relative w-full sm:w-72">
                     <Search className="absolute left-3 top-1/2 -translate-y-1/2 w-4 h-4 text-muted-foreground" />
                     <Input
-                        placeholder="Search customers..."
+                        placeholder="Search this page..."
                         value={searchTerm}
                         onChange={(e) => setSearchTerm(e.target.value)}
                         className="pl-10"
@@ -109,11 +134,11 @@ const CustomerManagement = () => {
                     <table className="data-table">
                         <thead>
                             <tr>
-                                <th>Customer</th>
+                                <th>{sortLabel("name", "Customer")}</th>
                                 <th>Contact</th>
-                                <th>Orders</th>
-                                <th>Total Spent</th>
-                                <th>Joined</th>
+                                <th>{sortLabel("orders", "Orders")}</th>
+                                <th>{sortLabel("spend", "Total Spent")}</th>
+                                <th>{sortLabel("recent", "Joined")}</th>
                                 <th>Status</th>
                             </tr>
                         </thead>
@@ -158,6 +183,19 @@ const CustomerManagement = () => {
                     </table>
                 </div>
             </div>
+
+            <div className="flex items-center justify-between text-sm text-muted-foreground">
+                <span>{total} customers</span>
+                <div className="flex items-center gap-3">
+                    <Button variant="outline" size="sm" disabled={page === 0 || loading} onClick={() => setPage(page - 1)}>
+                        Previous
+                    </Button>
+                    <span>Page {page + 1} of {totalPages}</span>
+                    <Button variant="outline" size="sm" disabled={page + 1 >= totalPages || loading} onClick={() => setPage(page + 1)}>
+                        Next
+                    </Button>
+                </div>
+            </div>
         </div>
     );
 };
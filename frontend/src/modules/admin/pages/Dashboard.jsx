@@ -3,14 +3,13 @@ import { useApp } from '@/shared/context/AppContext';
 const Dashboard = () => {
   const context = useApp();
   const users = context.users || [];
-  const restaurants = context.restaurants || [];
   const orders = context.orders || [];
 
   // Calculate total revenue from all orders
   const totalRevenue = orders.reduce((sum, order) => sum + (order.total || 0), 0);
 
   // Count approved restaurants only
-  const approvedRestaurants = restaurants.filter(r => r.approved).length;
+  const approvedRestaurants = context.restaurantCount || 0;
 
   return (
     <>
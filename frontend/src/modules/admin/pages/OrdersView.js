@@ -2,10 +2,12 @@ import { useState, useEffect } from "react";
 import { Search, Eye, Filter, Calendar } from "lucide-react";
 import { Button } from "@/shared/components/ui/button";
 import { Input } from "@/shared/components/ui/input";
-import API from "@/services/api";
+import API, { getOrderPage } from "@/services/api";
 
 const OrdersView = () => {
     const [orders, setOrders] = useState([]);
+    const [nextCursor, setNextCursor] = useState(null);
+    const [loadingMore, setLoadingMore] = useState(false);
     const [deliveryBoys, setDeliveryBoys] = useState([]);
     const [loading, setLoading] = useState(true);
     const [searchTerm, setSearchTerm] = useState("");
@@ -16,11 +18,12 @@ const OrdersView = () => {
         const fetchData = async () => {
             try {
                 setLoading(true);
-                const [ordersRes, deliveryRes] = await Promise.all([
-                    API.get("/admin/orders"),
+                const [ordersPage, deliveryRes] = await Promise.all([
+                    getOrderPage("/admin/orders"),
                     API.get("/admin/delivery")
                 ]);
-                if (ordersRes.data) setOrders(ordersRes.data);
+                setOrders(ordersPage.orders);
+                setNextCursor(ordersPage.nextCursor);
                 if (deliveryRes.data) setDeliveryBoys(deliveryRes.data); // Assuming this returns all delivery boys (active/approved)
             } catch (error) {
                 console.error("Failed to fetch data", error);
@@ -31,6 +34,19 @@ const OrdersView = () => {
         fetchData();
     }, []);
 
+    const loadMore = async () => {
+        try {
+            setLoadingMore(true);
+            const page = await getOrderPage("/admin/orders", nextCursor);
+            setOrders((prev) => [...prev, ...page.orders]);
+            setNextCursor(page.nextCursor);
+        } catch (error) {
+            console.error("Failed to load more orders", error);
+        } finally {
+            setLoadingMore(false);
+        }
+    };
+
     const handleAssign = async (orderId, deliveryBoyId) => {
         try {
             await API.put(`/admin/orders/assign/${orderId}`, null, {
@@ -197,6 +213,14 @@ const OrdersView = () => {
                     </table>
                 </div>
             </div>
+
+            {nextCursor && (
+                <div className="flex justify-center">
+                    <Button variant="outline" onClick={loadMore} disabled={loadingMore}>
+                        {loadingMore ? "Loading..." : "Load more"}
+                    </Button>
+                </div>
+            )}
         </div>
     );
 };
@@ -12,6 +12,7 @@ import { toast } from '@/shared/hooks/use-toast';
 import API from '@/services/api';
 
 const cuisineFilters = ['All', 'Multi-Cuisine', 'North Indian', 'Chinese', 'Italian', 'South Indian', 'Fast Food'];
+const PAGE_SIZE = 24;
 
 const Restaurants = () => {
   const { addRestaurant, register, getImageUrl } = useApp(); // Keep register for now as it handles user reg
@@ -19,6 +20,9 @@ const Restaurants = () => {
   const [loading, setLoading] = useState(true);
   const [searchQuery, setSearchQuery] = useState('');
   const [selectedCuisine, setSelectedCuisine] = useState('All');
+  const [page, setPage] = useState(0);
+  const [total, setTotal] = useState(0);
+  const [featured, setFeatured] = useState(null);
   const [isRegisterOpen, setIsRegisterOpen] = useState(false);
 
   // ... form data state ...
@@ -36,11 +40,24 @@ const Restaurants = () => {
     imagePreview: null
   });
 
+  useEffect(() => {
+    API.get('/restaurants/featured')
+      .then((res) => setFeatured(res.data))
+      .catch(() => setFeatured(null)); // 404 until My Kitchen has its first dish
+  }, []);
+
+  // Cuisine filter and paging run in the database; one page is loaded at a time
   useEffect(() => {
     const fetchRestaurants = async () => {
       try {
-        const res = await API.get('/restaurants');
-        setRestaurants(res.data);
+        setLoading(true);
+        const params = { page, size: PAGE_SIZE };
+        if (selectedCuisine !== 'All') {
+          params.cuisine = selectedCuisine;
+        }
+        const res = await API.get('/restaurants', { params });
+        setRestaurants(res.data || []);
+        setTotal(Number(res.headers['x-total-count'] || 0));
       } catch (error) {
         console.error("Failed to fetch restaurants", error);
       } finally {
@@ -48,21 +65,28 @@ const Restaurants = () => {
       }
     };
     fetchRestaurants();
-  }, []);
+  }, [page, selectedCuisine]);
+
+  const selectCuisine = (cuisine) => {
+    setSelectedCuisine(cuisine);
+    setPage(0);
+  };
+
+  const totalPages = Math.max(1, Math.ceil(total / PAGE_SIZE));
 
-  // My Kitchen always first
+  // My Kitchen always first: pinned at the top of the first page, left out of the others
   const filteredRestaurants = useMemo(() => {
-    let filtered = restaurants; // API returns only approved ones
+    let filtered = featured ? restaurants.filter(r => r.id !== featured.id) : restaurants; // API returns only approved ones
+    if (featured && page === 0 && (selectedCuisine === 'All' || featured.cuisineType === selectedCuisine)) {
+      filtered = [featured, ...filtered];
+    }
     if (searchQuery) {
       const query = searchQuery.toLowerCase();
       filtered = filtered.filter(r => r.restaurantName.toLowerCase().includes(query) ||
         (r.cuisineType && r.cuisineType.toLowerCase().includes(query)));
     }
-    if (selectedCuisine !== 'All') {
-      filtered = filtered.filter(r => r.cuisineType === selectedCuisine); // Note: backend uses cuisineType
-    }
     return filtered;
-  }, [restaurants, searchQuery, selectedCuisine]);
+  }, [restaurants, featured, page, searchQuery, selectedCuisine]);
 
   const handleImageUpload = (e) => {
     const file = e.target.files?.[0];
@@ -249,7 +273,7 @@ const Restaurants = () => {
 
           <div className="flex items-center gap-2 overflow-x-auto pb-2">
             <Filter className="w-4 h-4 text-muted-foreground flex-shrink-0" />
-            {cuisineFilters.map((cuisine) => (<button key={cuisine} onClick={() => setSelectedCuisine(cuisine)} className={`category-pill whitespace-nowrap ${selectedCuisine === cuisine ? 'active' : ''}`}>
+            {cuisineFilters.map((cuisine) => (<button key={cuisine} onClick={() => selectCuisine(cuisine)} className={`category-pill whitespace-nowrap ${selectedCuisine === cuisine ? 'active' : ''}`}>
               {cuisine}
             </button>))}
           </div>
@@ -262,7 +286,7 @@ const Restaurants = () => {
       <div className="container mx-auto px-4">
         <div className="flex items-center justify-between mb-6">
           <p className="text-muted-foreground">
-            Showing {filteredRestaurants.length} restaurant{filteredRestaurants.length !== 1 ? 's' : ''}
+            Showing {filteredRestaurants.length} of {total} restaurant{total !== 1 ? 's' : ''}
           </p>
         </div>
 
@@ -296,6 +320,16 @@ const Restaurants = () => {
             </p>
           </div>)
         )}
+
+        {totalPages > 1 && (<div className="flex items-center justify-center gap-4 mt-10">
+          <Button variant="outline" disabled={page === 0 || loading} onClick={() => setPage(page - 1)}>
+            Previous
+          </Button>
+          <span className="text-muted-foreground">Page {page + 1} of {totalPages}</span>
+          <Button variant="outline" disabled={page + 1 >= totalPages || loading} onClick={() => setPage(page + 1)}>
+            Next
+          </Button>
+        </div>)}
       </div>
     </section>
   </Layout>);
@@ -6,7 +6,7 @@ import { Button } from '@/shared/components/ui/button';
 import { Badge } from '@/shared/components/ui/badge';
 import { Tabs, TabsContent, TabsList, TabsTrigger } from '@/shared/components/ui/tabs';
 import { toast } from '@/shared/hooks/use-toast';
-import API from '@/services/api';
+import API, { getOrderPage } from '@/services/api';
 import { useState, useEffect } from 'react';
 import { getUserDetails } from '@/utils/auth';
 
@@ -15,6 +15,8 @@ const DeliveryDashboard = () => {
   const currentUser = getUserDetails();
   const [availableOrders, setAvailableOrders] = useState([]);
   const [myDeliveries, setMyDeliveries] = useState([]);
+  const [nextCursor, setNextCursor] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
   const [loading, setLoading] = useState(true);
 
   // Check if user is delivery boy
@@ -30,10 +32,11 @@ const DeliveryDashboard = () => {
       setLoading(true);
       const [resAvailable, resMy] = await Promise.all([
         API.get('/orders/available'),
-        API.get('/orders/delivery')
+        getOrderPage('/orders/delivery')
       ]);
       setAvailableOrders(resAvailable.data);
-      setMyDeliveries(resMy.data);
+      setMyDeliveries(resMy.orders);
+      setNextCursor(resMy.nextCursor);
     } catch (error) {
       console.error("Failed to fetch orders", error);
     } finally {
@@ -45,6 +48,20 @@ const DeliveryDashboard = () => {
     fetchOrders();
   }, []);
 
+  // Older deliveries, newest first, one page per click
+  const loadMoreDeliveries = async () => {
+    try {
+      setLoadingMore(true);
+      const page = await getOrderPage('/orders/delivery', nextCursor);
+      setMyDeliveries((prev) => [...prev, ...page.orders]);
+      setNextCursor(page.nextCursor);
+    } catch (error) {
+      console.error("Failed to load more deliveries", error);
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   const activeDeliveries = myDeliveries.filter(o => o.status !== 'delivered');
   const completedDeliveries = myDeliveries.filter(o => o.status === 'delivered');
 
@@ -188,6 +205,11 @@ const DeliveryDashboard = () => {
             {/* Completed Deliveries */}
             <TabsContent value="completed" className="space-y-4">
               {completedDeliveries.length > 0 ? (completedDeliveries.map((order) => (<DeliveryCard key={order.id} order={order} isCompleted />))) : (<EmptyState icon={CheckCircle} message="No completed deliveries yet" />)}
+              {nextCursor && (<div className="flex justify-center">
+                <Button variant="outline" onClick={loadMoreDeliveries} disabled={loadingMore}>
+                  {loadingMore ? 'Loading...' : 'Load more deliveries'}
+                </Button>
+              </div>)}
             </TabsContent>
           </Tabs>
         </div>
@@ -9,7 +9,7 @@ import { Label } from '@/shared/components/ui/label';
 import { Tabs, TabsContent, TabsList, TabsTrigger } from '@/shared/components/ui/tabs';
 import { toast } from '@/shared/hooks/use-toast';
 import { Dialog, DialogContent, DialogHeader, DialogTitle, } from '@/shared/components/ui/dialog';
-import API from '@/services/api';
+import API, { getOrderPage } from '@/services/api';
 import { logout as authLogout } from '@/utils/auth';
 
 const statusConfig = {
@@ -28,6 +28,8 @@ const OwnerDashboard = () => {
     // State
     const [menuItems, setMenuItems] = useState([]);
     const [orders, setOrders] = useState([]);
+    const [nextCursor, setNextCursor] = useState(null);
+    const [loadingMore, setLoadingMore] = useState(false);
     const [ngos, setNgos] = useState([]);
     const [loading, setLoading] = useState(true);
     const [restaurantId, setRestaurantId] = useState(null);
@@ -73,15 +75,30 @@ const OwnerDashboard = () => {
         }
     };
 
+    // Newest orders first; older ones are fetched on demand with the X-Next-Cursor of the last page
     const fetchOrders = async (id) => {
         try {
-            const res = await API.get(`/orders/restaurant/${id}`);
-            setOrders(res.data);
+            const page = await getOrderPage(`/orders/restaurant/${id}`);
+            setOrders(page.orders);
+            setNextCursor(page.nextCursor);
         } catch (error) {
             console.error("Failed to fetch orders", error);
         }
     };
 
+    const loadMoreOrders = async () => {
+        try {
+            setLoadingMore(true);
+            const page = await getOrderPage(`/orders/restaurant/${restaurantId}`, nextCursor);
+            setOrders((prev) => [...prev, ...page.orders]);
+            setNextCursor(page.nextCursor);
+        } catch (error) {
+            console.error("Failed to load more orders", error);
+        } finally {
+            setLoadingMore(false);
+        }
+    };
+
     const fetchNGOs = async () => {
         try {
             const res = await API.get('/ngos');
@@ -360,6 +377,13 @@ const OwnerDashboard = () => {
                                     <p className="text-foreground/60">No orders yet</p>
                                 </div>
                             )}
+                            {nextCursor && (
+                                <div className="flex justify-center">
+                                    <Button variant="outline" onClick={loadMoreOrders} disabled={loadingMore}>
+                                        {loadingMore ? 'Loading...' : 'Load more orders'}
+                                    </Button>
+                                </div>
+                            )}
                         </div>
                     </TabsContent>
 
@@ -26,4 +26,10 @@ API.interceptors.request.use((req) => {
   return req;
 });
 
+// Order lists are keyset-paginated: pass a page's X-Next-Cursor to fetch the one after it
+export const getOrderPage = async (url, cursor = null, limit = 50) => {
+  const res = await API.get(url, { params: cursor ? { limit, cursor } : { limit } });
+  return { orders: res.data || [], nextCursor: res.headers['x-next-cursor'] || null };
+};
+
 export default API;
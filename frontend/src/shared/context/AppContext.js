@@ -6,6 +6,7 @@ const generateId = () => Math.random().toString(36).substr(2, 9);
 export const AppProvider = ({ children }) => {
 
     const [restaurants, setRestaurants] = useState([]);
+    const [restaurantCount, setRestaurantCount] = useState(0);
     const [cart, setCart] = useState(() => {
         const saved = localStorage.getItem('cart');
         return saved ? JSON.parse(saved) : [];
@@ -48,9 +49,17 @@ export const AppProvider = ({ children }) => {
     useEffect(() => {
         const fetchInitialData = async () => {
             try {
-                // Fetch Approved Restaurants
-                const restRes = await API.get("/restaurants");
-                const approvedRestaurants = Array.isArray(restRes.data) ? restRes.data : [];
+                // Only what Home shows: a short preview plus My Kitchen; the Restaurants page pages the rest
+                const [restRes, featuredRes] = await Promise.all([
+                    API.get("/restaurants", { params: { size: 8 } }),
+                    API.get("/restaurants/featured").catch(() => null)
+                ]);
+                let approvedRestaurants = Array.isArray(restRes.data) ? restRes.data : [];
+                setRestaurantCount(Number(restRes.headers['x-total-count'] || approvedRestaurants.length));
+                const featured = featuredRes ? featuredRes.data : null;
+                if (featured) {
+                    approvedRestaurants = [featured, ...approvedRestaurants.filter(r => r.id !== featured.id)];
+                }
 
                 // Fetch Approved NGOs
                 try {
@@ -364,6 +373,7 @@ export const AppProvider = ({ children }) => {
 
         currentUser,
         restaurants,
+        restaurantCount,
         addRestaurant,
         getRestaurant,
         approveRestaurant,